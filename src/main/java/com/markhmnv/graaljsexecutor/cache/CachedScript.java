@@ -0,0 +1,12 @@
+package com.markhmnv.graaljsexecutor.cache;
+
+import com.markhmnv.graaljsexecutor.model.projection.ScriptRevision;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CachedScript {
+    private final ScriptRevision revision;
+    private final byte[] json;
+}
@@ -0,0 +1,54 @@
+package com.markhmnv.graaljsexecutor.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of serialized responses for scripts in a terminal status.
+ * Bounded both by the number of entries and by the total size of the cached JSON.
+ */
+@Component
+public class ScriptResponseCache {
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, CachedScript> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ScriptResponseCache(@Value("${script.response-cache.max-entries:1000}") int maxEntries,
+                               @Value("${script.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized CachedScript get(Long id) {
+        return entries.get(id);
+    }
+
+    public synchronized void put(Long id, CachedScript script) {
+        if (script.getJson().length > maxBytes)
+            return;
+        CachedScript previous = entries.put(id, script);
+        if (previous != null)
+            totalBytes -= previous.getJson().length;
+        totalBytes += script.getJson().length;
+        evictOverflow();
+    }
+
+    public synchronized void evict(Long id) {
+        CachedScript removed = entries.remove(id);
+        if (removed != null)
+            totalBytes -= removed.getJson().length;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, CachedScript>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || totalBytes > maxBytes)) {
+            totalBytes -= eldest.next().getValue().getJson().length;
+            eldest.remove();
+        }
+    }
+}
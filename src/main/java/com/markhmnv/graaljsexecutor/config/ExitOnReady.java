@@ -0,0 +1,40 @@
+package com.markhmnv.graaljsexecutor.config;
+
+import com.markhmnv.graaljsexecutor.engine.EngineWarmup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Shuts the application down as soon as it is ready and the engine is warm. Used for the training run
+ * that records the class data sharing archive and by the startup benchmark, which reads the printed startup time.
+ * The startup time is the JVM uptime when the readiness state changes to ACCEPTING_TRAFFIC, which Spring Boot
+ * publishes after all ApplicationReadyEvent listeners, including the ones restoring schedules, have run.
+ */
+@Component
+@Lazy(false)
+@Profile("exit-on-ready")
+@RequiredArgsConstructor
+public class ExitOnReady {
+    public static final String STARTUP_TIME_PREFIX = "Startup time (ms): ";
+
+    private final ApplicationContext applicationContext;
+    private final EngineWarmup engineWarmup;
+
+    @EventListener
+    public void exit(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC)
+            return;
+        System.out.println(STARTUP_TIME_PREFIX + ManagementFactory.getRuntimeMXBean().getUptime());
+        engineWarmup.getCompletion().join();
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
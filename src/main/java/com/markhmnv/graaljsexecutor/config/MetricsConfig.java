@@ -0,0 +1,9 @@
+package com.markhmnv.graaljsexecutor.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StatisticsProperties.class)
+public class MetricsConfig {
+}
@@ -1,5 +1,6 @@
 package com.markhmnv.graaljsexecutor.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.TaskScheduler;
@@ -8,6 +9,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @EnableScheduling
+@EnableConfigurationProperties(TenantProperties.class)
 public class SchedulerConfig {
 
     @Bean
@@ -0,0 +1,24 @@
+package com.markhmnv.graaljsexecutor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the script statistics exposed at {@code /api/v1/scripts/stats}.
+ */
+@Data
+@ConfigurationProperties(prefix = "script.stats")
+public class StatisticsProperties {
+    /**
+     * Windows over which execution time percentiles are reported.
+     */
+    private List<Duration> windows = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15));
+
+    /**
+     * Granularity at which samples leave a window.
+     */
+    private Duration resolution = Duration.ofSeconds(10);
+}
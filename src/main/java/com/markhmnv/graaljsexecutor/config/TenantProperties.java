@@ -0,0 +1,89 @@
+package com.markhmnv.graaljsexecutor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fair-share scheduling settings. Limits configured under {@code script.tenants.overrides.<tenant>}
+ * take precedence over {@code script.tenants.defaults}.
+ */
+@Data
+@ConfigurationProperties(prefix = "script.tenants")
+public class TenantProperties {
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Number of threads executing scripts, shared by all tenants.
+     */
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Length of the window in which the CPU time quota of a tenant is accounted.
+     */
+    private Duration quotaWindow = Duration.ofMinutes(1);
+
+    /**
+     * Window over which the queue latency percentiles of a tenant are reported.
+     */
+    private Duration latencyWindow = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of tenants tracked at the same time. Once reached, scripts of further tenants
+     * are accounted to the default tenant until idle tenants can be evicted.
+     */
+    private int maxTenants = 1000;
+
+    private Limits defaults = new Limits();
+
+    private Map<String, Limits> overrides = new HashMap<>();
+
+    @Data
+    public static class Limits {
+        /**
+         * Share of the workers relative to other tenants with pending scripts.
+         */
+        private Integer weight;
+
+        /**
+         * Maximum number of scripts of the tenant executing at the same time, unlimited if not set.
+         */
+        private Integer maxConcurrency;
+
+        /**
+         * CPU time the tenant may use per quota window, unlimited if not set.
+         */
+        private Duration cpuQuota;
+    }
+
+    public int weightOf(String tenant) {
+        Integer weight = limitsOf(tenant).getWeight();
+        if (weight == null)
+            weight = defaults.getWeight();
+        return weight == null ? 1 : Math.max(1, weight);
+    }
+
+    public int maxConcurrencyOf(String tenant) {
+        Integer maxConcurrency = limitsOf(tenant).getMaxConcurrency();
+        if (maxConcurrency == null)
+            maxConcurrency = defaults.getMaxConcurrency();
+        return maxConcurrency == null ? Integer.MAX_VALUE : maxConcurrency;
+    }
+
+    public Duration cpuQuotaOf(String tenant) {
+        Duration cpuQuota = limitsOf(tenant).getCpuQuota();
+        return cpuQuota == null ? defaults.getCpuQuota() : cpuQuota;
+    }
+
+    public boolean isConfigured(String tenant) {
+        return DEFAULT_TENANT.equals(tenant) || overrides.containsKey(tenant);
+    }
+
+    private Limits limitsOf(String tenant) {
+        return overrides.getOrDefault(tenant, defaults);
+    }
+}
@@ -0,0 +1,71 @@
+package com.markhmnv.graaljsexecutor.controller;
+
+import com.markhmnv.graaljsexecutor.model.response.LibraryInfo;
+import com.markhmnv.graaljsexecutor.service.LibraryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/libraries")
+@RequiredArgsConstructor
+@Tag(name = "Library", description = "Shared JS library APIs documentation")
+public class LibraryController {
+    private final LibraryService libraryService;
+
+    @Operation(summary = "Get a list of stored libraries")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class))),
+    })
+    @GetMapping
+    public List<LibraryInfo> getLibraries(){
+        return libraryService.getLibraries();
+    }
+
+    @Operation(summary = "Get the source of a library by its name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the library",
+                    content = @Content(mediaType = "text/javascript")),
+            @ApiResponse(responseCode = "404", description = "Library with the specified name does not exist",
+                    content = @Content),
+    })
+    @GetMapping(value = "/{name}", produces = "text/javascript")
+    public String getLibrary(@PathVariable String name){
+        return libraryService.getLibrary(name);
+    }
+
+    @Operation(summary = "Upload an ES module library, importable by scripts as import ... from '{name}'")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully stored the library",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = LibraryInfo.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid library name or syntax",
+                    content = @Content),
+    })
+    @PutMapping("/{name}")
+    public LibraryInfo saveLibrary(@PathVariable String name, @RequestBody String libraryRequest){
+        return libraryService.saveLibrary(name, libraryRequest);
+    }
+
+    @Operation(summary = "Delete a library by its name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Successfully deleted the library"),
+            @ApiResponse(responseCode = "404", description = "Library with the specified name does not exist",
+                    content = @Content),
+    })
+    @DeleteMapping("/{name}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteLibrary(@PathVariable String name){
+        libraryService.deleteLibrary(name);
+    }
+}
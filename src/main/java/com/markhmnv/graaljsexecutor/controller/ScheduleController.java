@@ -0,0 +1,98 @@
+package com.markhmnv.graaljsexecutor.controller;
+
+import com.markhmnv.graaljsexecutor.config.TenantProperties;
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleRunInfo;
+import com.markhmnv.graaljsexecutor.service.ScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/schedules")
+@RequiredArgsConstructor
+@Tag(name = "Schedule", description = "Recurring schedule APIs documentation")
+public class ScheduleController {
+    private final ScheduleService scheduleService;
+
+    @Operation(summary = "Get a list of recurring schedules")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class))),
+    })
+    @GetMapping
+    public List<ScheduleInfo> getSchedules(){
+        return scheduleService.getSchedules();
+    }
+
+    @Operation(summary = "Get a schedule by its id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the schedule",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ScheduleInfo.class))),
+            @ApiResponse(responseCode = "404", description = "Schedule with the specified id does not exist",
+                    content = @Content),
+    })
+    @GetMapping("/{id}")
+    public ScheduleInfo getSchedule(@PathVariable Long id){
+        return scheduleService.getSchedule(id);
+    }
+
+    @Operation(summary = "Get the runs of a schedule, the most recent first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class))),
+            @ApiResponse(responseCode = "404", description = "Schedule with the specified id does not exist",
+                    content = @Content),
+    })
+    @GetMapping("/{id}/runs")
+    public List<ScheduleRunInfo> getScheduleRuns(@PathVariable Long id){
+        return scheduleService.getScheduleRuns(id);
+    }
+
+    @Operation(summary = "Create a recurring schedule of a script, by cron expression or fixed rate in milliseconds")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully created the schedule",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ScheduleInfo.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cron expression, rate, timezone or policy combination",
+                    content = @Content),
+    })
+    @PostMapping
+    public ScheduleInfo createSchedule(@RequestBody String scriptRequest,
+                                       @RequestParam(required = false) String cron,
+                                       @RequestParam(required = false) Long fixedRate,
+                                       @RequestParam(required = false) String timezone,
+                                       @RequestParam(defaultValue = "SKIP") OverlapPolicy overlapPolicy,
+                                       @RequestParam(defaultValue = "SKIP") CatchUpPolicy catchUpPolicy,
+                                       @RequestParam(defaultValue = "false") boolean retainContext,
+                                       @RequestHeader(value = TenantProperties.TENANT_HEADER,
+                                               defaultValue = TenantProperties.DEFAULT_TENANT) String tenant){
+        return scheduleService.createSchedule(scriptRequest, cron, fixedRate, timezone,
+                overlapPolicy, catchUpPolicy, retainContext, tenant);
+    }
+
+    @Operation(summary = "Delete a schedule with its runs by its id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Successfully deleted the schedule"),
+            @ApiResponse(responseCode = "404", description = "Schedule with the specified id does not exist",
+                    content = @Content),
+    })
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteSchedule(@PathVariable Long id){
+        scheduleService.deleteSchedule(id);
+    }
+}
@@ -1,21 +1,35 @@
 package com.markhmnv.graaljsexecutor.controller;
 
+import com.markhmnv.graaljsexecutor.config.TenantProperties;
+import com.markhmnv.graaljsexecutor.cache.CachedScript;
 import com.markhmnv.graaljsexecutor.model.response.ScriptFullInfo;
 import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScriptStats;
 import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.projection.ScriptRevision;
 import com.markhmnv.graaljsexecutor.service.ScriptService;
+import com.markhmnv.graaljsexecutor.streaming.ScriptListFormat;
+import com.markhmnv.graaljsexecutor.streaming.ScriptListWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/scripts")
@@ -23,17 +37,42 @@ import java.util.List;
 @Tag(name = "Script", description = "Script APIs documentation")
 public class ScriptController {
     private final ScriptService scriptService;
+    private final ScriptListWriter scriptListWriter;
 
-    @Operation(summary = "Get a list of available scripts")
+    @Operation(summary = "Get a list of available scripts, streamed as JSON, NDJSON, CBOR or Smile depending on the Accept header")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list",
-                    content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class))),
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = ScriptGeneralInfo.class))),
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = ScriptGeneralInfo.class)),
+                            @Content(mediaType = "application/cbor"),
+                            @Content(mediaType = "application/x-jackson-smile")
+                    }),
+            @ApiResponse(responseCode = "406", description = "None of the accepted media types is supported",
+                    content = @Content),
     })
     @GetMapping
-    public List<ScriptGeneralInfo> getScripts(@RequestParam(required = false) ScriptStatus status,
-                                              @RequestParam(defaultValue = "id") String sortBy){
-        return scriptService.getScripts(status, sortBy);
+    public void getScripts(@RequestParam(required = false) ScriptStatus status,
+                           @RequestParam(defaultValue = "id") String sortBy,
+                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                           HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        ScriptListFormat format = ScriptListFormat.negotiate(accept);
+        response.setContentType(format.getMediaType().toString());
+        scriptListWriter.write(format, response.getOutputStream(),
+                action -> scriptService.streamScripts(status, sortBy, action));
+    }
+
+    @Operation(summary = "Get the number of scripts per status and execution time percentiles over rolling windows")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ScriptStats.class))),
+    })
+    @GetMapping("/stats")
+    public ScriptStats getScriptStats(){
+        return scriptService.getScriptStats();
     }
 
     @Operation(summary = "Get a script by its id")
@@ -41,12 +80,28 @@ public class ScriptController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the script",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ScriptFullInfo.class))),
+            @ApiResponse(responseCode = "304", description = "Script has not changed since the provided ETag or date",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Script with the specified id does not exist",
                     content = @Content),
     })
     @GetMapping("/{id}")
-    public ScriptFullInfo getScript(@PathVariable Long id){
-        return scriptService.getScript(id);
+    public ResponseEntity<byte[]> getScript(@PathVariable Long id, HttpServletRequest request){
+        // A 304 carries no body, so the revision alone decides it. The request is checked without touching the response,
+        // the validators of a 200 response come from the read of its body.
+        ScriptRevision revision = scriptService.getScriptRevision(id);
+        if (new ServletWebRequest(request).checkNotModified(revision.eTag(), revision.lastModified()))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(revision.eTag())
+                    .lastModified(revision.lastModified())
+                    .build();
+
+        CachedScript script = scriptService.getScriptResponse(id);
+        return ResponseEntity.ok()
+                .eTag(script.getRevision().eTag())
+                .lastModified(script.getRevision().lastModified())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(script.getJson());
     }
 
     @Operation(summary = "Get a script by its id")
@@ -60,8 +115,10 @@ public class ScriptController {
     @PostMapping("/evaluate")
     public ScriptFullInfo evaluateJavascript(@RequestBody String scriptRequest,
                                              @RequestParam(required = false) LocalDateTime executeAt,
-                                             @RequestParam(required = false) String timezone){
-        return scriptService.evaluateScript(scriptRequest, executeAt, timezone);
+                                             @RequestParam(required = false) String timezone,
+                                             @RequestHeader(value = TenantProperties.TENANT_HEADER,
+                                                     defaultValue = TenantProperties.DEFAULT_TENANT) String tenant){
+        return scriptService.evaluateScript(scriptRequest, executeAt, timezone, tenant);
     }
 
     @Operation(summary = "Delete a script by its id")
@@ -0,0 +1,35 @@
+package com.markhmnv.graaljsexecutor.controller;
+
+import com.markhmnv.graaljsexecutor.model.response.TenantStats;
+import com.markhmnv.graaljsexecutor.scheduling.FairShareDispatcher;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/tenants")
+@RequiredArgsConstructor
+@Tag(name = "Tenant", description = "Tenant scheduling APIs documentation")
+public class TenantController {
+    private final FairShareDispatcher dispatcher;
+
+    @Operation(summary = "Get the queue, CPU time and queue latency statistics of every tenant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = List.class))),
+    })
+    @GetMapping("/stats")
+    public List<TenantStats> getTenantStats(){
+        return dispatcher.getTenantStats();
+    }
+}
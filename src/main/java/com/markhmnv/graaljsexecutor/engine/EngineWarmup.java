@@ -0,0 +1,80 @@
+package com.markhmnv.graaljsexecutor.engine;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Starts building the shared engine and evaluates a few throwaway scripts in the background once the application
+ * has started, so class loading and engine initialization are not paid by the first evaluated script
+ * and readiness does not wait for them. If the warmup is disabled, the engine is built on first use.
+ */
+@Component
+@Lazy(false)
+public class EngineWarmup {
+    private static final String WARMUP_SCRIPT = """
+            const values = [];
+            for (let i = 0; i < 100; i++) values.push({ id: i, name: 'value-' + i });
+            print(JSON.stringify(values.filter(value => value.id % 2 === 0).map(value => value.name)).length);
+            """;
+
+    private final ObjectProvider<ScriptRuntime> scriptRuntime;
+    private final boolean enabled;
+    private final int iterations;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    public EngineWarmup(ObjectProvider<ScriptRuntime> scriptRuntime,
+                        @Value("${script.engine.warmup.enabled:true}") boolean enabled,
+                        @Value("${script.engine.warmup.iterations:10}") int iterations) {
+        this.scriptRuntime = scriptRuntime;
+        this.enabled = enabled;
+        this.iterations = iterations;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void startWarmup() {
+        if (!enabled) {
+            completion.complete(null);
+            return;
+        }
+        scriptRuntime.getObject().initEngine();
+        Thread thread = new Thread(this::warmup, "EngineWarmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Warms the engine up on the calling thread.
+     */
+    public void warmup() {
+        try {
+            ScriptRuntime runtime = scriptRuntime.getObject();
+            Source source = runtime.sourceOf("warmup", WARMUP_SCRIPT);
+            for (int i = 0; i < iterations; i++) {
+                try (Context context = runtime.contextWith(OutputStream.nullOutputStream())) {
+                    context.eval(source);
+                }
+            }
+        } catch (PolyglotException ignored) {
+            // Warmup is best effort, the first script pays the remaining initialization
+        } finally {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * @return A future completed once the warmup has finished or was skipped.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+}
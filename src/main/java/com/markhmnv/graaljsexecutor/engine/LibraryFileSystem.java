@@ -0,0 +1,102 @@
+package com.markhmnv.graaljsexecutor.engine;
+
+import org.graalvm.polyglot.io.FileSystem;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileAttribute;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only polyglot file system that exposes only the library store to scripts.
+ * A bare module specifier like {@code import 'lodash'} resolves to {@code <library store>/lodash.mjs}.
+ */
+public class LibraryFileSystem implements FileSystem {
+    public static final String EXTENSION = ".mjs";
+
+    private final FileSystem delegate = FileSystem.newDefaultFileSystem();
+    private final Path root;
+
+    public LibraryFileSystem(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public Path parsePath(URI uri) {
+        return delegate.parsePath(uri);
+    }
+
+    @Override
+    public Path parsePath(String path) {
+        if (path.indexOf('/') < 0 && path.indexOf('\\') < 0 && !path.startsWith("."))
+            return root.resolve(withExtension(path));
+        return delegate.parsePath(path);
+    }
+
+    @Override
+    public void checkAccess(Path path, Set<? extends AccessMode> modes, LinkOption... linkOptions) throws IOException {
+        if (modes.contains(AccessMode.WRITE))
+            throw new AccessDeniedException(path.toString(), null, "Library store is read-only");
+        delegate.checkAccess(inRoot(path), modes, linkOptions);
+    }
+
+    @Override
+    public void createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException {
+        throw new AccessDeniedException(dir.toString(), null, "Library store is read-only");
+    }
+
+    @Override
+    public void delete(Path path) throws IOException {
+        throw new AccessDeniedException(path.toString(), null, "Library store is read-only");
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options,
+                                              FileAttribute<?>... attrs) throws IOException {
+        for (OpenOption option : options)
+            if (option != StandardOpenOption.READ && option != LinkOption.NOFOLLOW_LINKS)
+                throw new AccessDeniedException(path.toString(), null, "Library store is read-only");
+        return delegate.newByteChannel(inRoot(path), options, attrs);
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException {
+        return delegate.newDirectoryStream(inRoot(dir), filter);
+    }
+
+    @Override
+    public Path toAbsolutePath(Path path) {
+        return path.isAbsolute() ? path : root.resolve(path);
+    }
+
+    /**
+     * Canonicalizes a module path, adding the library extension when a module is imported by its bare name
+     * relative to another library, e.g. {@code import './dates'}.
+     */
+    @Override
+    public Path toRealPath(Path path, LinkOption... linkOptions) throws IOException {
+        Path absolute = toAbsolutePath(path).normalize();
+        if (!Files.exists(absolute) && !absolute.getFileName().toString().contains("."))
+            absolute = absolute.resolveSibling(withExtension(absolute.getFileName().toString()));
+        return inRoot(delegate.toRealPath(inRoot(absolute), linkOptions));
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+        return delegate.readAttributes(inRoot(path), attributes, options);
+    }
+
+    private Path inRoot(Path path) throws AccessDeniedException {
+        Path absolute = toAbsolutePath(path).normalize();
+        if (!absolute.startsWith(root))
+            throw new AccessDeniedException(path.toString(), null, "Only libraries can be imported");
+        return absolute;
+    }
+
+    private static String withExtension(String name) {
+        return name.contains(".") ? name : name + EXTENSION;
+    }
+}
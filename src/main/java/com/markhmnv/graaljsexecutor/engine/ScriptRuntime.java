@@ -0,0 +1,156 @@
+package com.markhmnv.graaljsexecutor.engine;
+
+import lombok.Getter;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.io.IOAccess;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the GraalJS engine shared by all script contexts.
+ * Contexts created on the same engine share parsed code, so evaluating an already seen Source,
+ * including a library module imported by another script before, skips parsing.
+ * The engine is built in the background on first use, so creating this bean does not delay startup.
+ */
+@Component
+public class ScriptRuntime implements DisposableBean {
+    private static final String MODULE_MIME_TYPE = "application/javascript+module";
+    private static final Pattern MODULE_SYNTAX = Pattern.compile("^\\s*(import\\s*[\\w*{'\"]|export\\s)", Pattern.MULTILINE);
+
+    private volatile CompletableFuture<Engine> engine;
+    @Getter
+    private final Path librariesDir;
+    private final IOAccess libraryAccess;
+
+    public ScriptRuntime(@Value("${script.libraries.dir:libraries}") String librariesDir) throws IOException {
+        this.librariesDir = Files.createDirectories(Path.of(librariesDir)).toRealPath();
+        this.libraryAccess = IOAccess.newBuilder()
+                .fileSystem(new LibraryFileSystem(this.librariesDir))
+                .build();
+    }
+
+    /**
+     * Starts building the shared engine on a background thread, unless it was started before.
+     *
+     * @return A future completed with the engine once it is built.
+     */
+    public CompletableFuture<Engine> initEngine() {
+        CompletableFuture<Engine> current = engine;
+        if (current == null) {
+            synchronized (this) {
+                if (engine == null)
+                    engine = CompletableFuture.supplyAsync(() -> Engine.newBuilder()
+                            .option("engine.WarnInterpreterOnly", "false")
+                            .build());
+                current = engine;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Creates a Context on the shared engine with the specified stream for output.
+     * Waits for the engine if it is still being built.
+     * Scripts evaluated in the context can import modules from the library store.
+     *
+     * @param out The stream to be used for printing script output and errors.
+     * @return A Context object with the specified stream.
+     */
+    public Context contextWith(OutputStream out) {
+        return Context.newBuilder("js")
+                .engine(engine())
+                .allowExperimentalOptions(true)
+                .option("js.print", "true")
+                .allowIO(libraryAccess)
+                .out(out)
+                .err(out)
+                .build();
+    }
+
+    /**
+     * Creates a cached Source, which can be evaluated repeatedly without being parsed again.
+     * Scripts using import or export declarations are evaluated as ES modules.
+     *
+     * @param name The name of the source without extension, shown in stack traces.
+     * @param body The javascript code.
+     * @return The Source object.
+     */
+    public Source sourceOf(String name, String body) {
+        if (MODULE_SYNTAX.matcher(body).find())
+            return moduleSourceOf(name, body);
+        return Source.newBuilder("js", body, name + ".js")
+                .cached(true)
+                .buildLiteral();
+    }
+
+    /**
+     * A Context evaluates a module only once, evaluating the same module Source again in that Context does nothing.
+     *
+     * @return true if the source is evaluated as an ES module.
+     */
+    public static boolean isModule(Source source) {
+        return source != null && MODULE_MIME_TYPE.equals(source.getMimeType());
+    }
+
+    /**
+     * Parses a library without evaluating it.
+     *
+     * @throws org.graalvm.polyglot.PolyglotException if the library has syntax errors.
+     */
+    public void checkLibrarySyntax(String name, String body) {
+        try (Context context = contextWith(OutputStream.nullOutputStream())) {
+            context.parse(moduleSourceOf(name, body));
+        }
+    }
+
+    /**
+     * Parses a stored library once, so it is cached on the shared engine before scripts import it.
+     * The library is only parsed, its top-level code runs in the importing scripts.
+     *
+     * @throws IOException if the library file cannot be read.
+     */
+    public void preloadLibrary(String name) throws IOException {
+        Source source = Source.newBuilder("js", librariesDir.resolve(name + LibraryFileSystem.EXTENSION).toFile())
+                .mimeType(MODULE_MIME_TYPE)
+                .cached(true)
+                .build();
+        try (Context context = contextWith(OutputStream.nullOutputStream())) {
+            context.parse(source);
+        }
+    }
+
+    private Source moduleSourceOf(String name, String body) {
+        return Source.newBuilder("js", body, name + LibraryFileSystem.EXTENSION)
+                .mimeType(MODULE_MIME_TYPE)
+                .cached(true)
+                .buildLiteral();
+    }
+
+    private Engine engine() {
+        try {
+            return initEngine().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        CompletableFuture<Engine> current = engine;
+        if (current != null)
+            current.thenAccept(built -> built.close(true));
+    }
+}
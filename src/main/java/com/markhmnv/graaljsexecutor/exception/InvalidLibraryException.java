@@ -0,0 +1,7 @@
+package com.markhmnv.graaljsexecutor.exception;
+
+public class InvalidLibraryException extends RuntimeException{
+    public InvalidLibraryException(String message){
+        super(message);
+    }
+}
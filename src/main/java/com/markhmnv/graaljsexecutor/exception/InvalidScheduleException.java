@@ -0,0 +1,7 @@
+package com.markhmnv.graaljsexecutor.exception;
+
+public class InvalidScheduleException extends RuntimeException{
+    public InvalidScheduleException(String message){
+        super(message);
+    }
+}
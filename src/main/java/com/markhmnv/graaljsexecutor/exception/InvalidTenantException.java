@@ -0,0 +1,7 @@
+package com.markhmnv.graaljsexecutor.exception;
+
+public class InvalidTenantException extends RuntimeException{
+    public InvalidTenantException(){
+        super("Tenant ID must be 1 to 64 letters, digits, '.', '-' or '_'");
+    }
+}
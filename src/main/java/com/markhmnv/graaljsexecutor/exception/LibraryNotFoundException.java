@@ -0,0 +1,7 @@
+package com.markhmnv.graaljsexecutor.exception;
+
+public class LibraryNotFoundException extends RuntimeException{
+    public LibraryNotFoundException(){
+        super("Library was not found");
+    }
+}
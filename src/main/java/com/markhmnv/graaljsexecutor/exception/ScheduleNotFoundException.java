@@ -0,0 +1,7 @@
+package com.markhmnv.graaljsexecutor.exception;
+
+public class ScheduleNotFoundException extends RuntimeException{
+    public ScheduleNotFoundException(){
+        super("Schedule was not found");
+    }
+}
@@ -2,10 +2,16 @@ package com.markhmnv.graaljsexecutor.exception.handler;
 
 import com.markhmnv.graaljsexecutor.exception.EvaluationException;
 import com.markhmnv.graaljsexecutor.exception.IllegalDeletionException;
+import com.markhmnv.graaljsexecutor.exception.InvalidLibraryException;
+import com.markhmnv.graaljsexecutor.exception.InvalidScheduleException;
+import com.markhmnv.graaljsexecutor.exception.InvalidTenantException;
+import com.markhmnv.graaljsexecutor.exception.LibraryNotFoundException;
+import com.markhmnv.graaljsexecutor.exception.ScheduleNotFoundException;
 import com.markhmnv.graaljsexecutor.exception.ScriptExecutionStopException;
 import com.markhmnv.graaljsexecutor.exception.ScriptNotFoundException;
 import com.markhmnv.graaljsexecutor.util.ErrorResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -15,15 +21,22 @@ public class ScriptExceptionHandler {
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler({
             EvaluationException.class,
-            ScriptExecutionStopException.class
+            ScriptExecutionStopException.class,
+            InvalidScheduleException.class,
+            InvalidLibraryException.class,
+            InvalidTenantException.class
     })
     public ErrorResponse handlerBadRequest(RuntimeException e) {
         return new ErrorResponse(e.getMessage());
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
-    @ExceptionHandler(ScriptNotFoundException.class)
-    public ErrorResponse handlerScriptNotFoundException(ScriptNotFoundException e) {
+    @ExceptionHandler({
+            ScriptNotFoundException.class,
+            ScheduleNotFoundException.class,
+            LibraryNotFoundException.class
+    })
+    public ErrorResponse handlerNotFound(RuntimeException e) {
         return new ErrorResponse(e.getMessage());
     }
 
@@ -32,4 +45,10 @@ public class ScriptExceptionHandler {
     public ErrorResponse handlerIllegalDeletionException(IllegalDeletionException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ErrorResponse handlerOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        return new ErrorResponse("The script kept being modified concurrently, it was not deleted");
+    }
 }
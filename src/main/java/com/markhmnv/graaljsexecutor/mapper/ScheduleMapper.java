@@ -0,0 +1,16 @@
+package com.markhmnv.graaljsexecutor.mapper;
+
+import com.markhmnv.graaljsexecutor.model.entity.Schedule;
+import com.markhmnv.graaljsexecutor.model.entity.ScheduleRun;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleRunInfo;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+@Mapper
+public interface ScheduleMapper {
+    ScheduleInfo toScheduleInfo(Schedule schedule);
+    List<ScheduleInfo> toScheduleInfoList(List<Schedule> schedules);
+    List<ScheduleRunInfo> toScheduleRunInfoList(List<ScheduleRun> runs);
+}
@@ -0,0 +1,85 @@
+package com.markhmnv.graaljsexecutor.metrics;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Ring of LatencyHistogram slices covering the most recent span of time.
+ * Samples are recorded into the slice of the current time, slices older than the span are reused,
+ * and a window is read by merging the slices it covers. Reads are accurate to one slice.
+ */
+public class RollingLatencyHistogram {
+    private final long resolutionNanos;
+    private final Slice[] slices;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public RollingLatencyHistogram(Duration resolution, Duration span) {
+        this(resolution, span, System::nanoTime);
+    }
+
+    /**
+     * @param resolution The time covered by a single slice.
+     * @param span       The longest window that can be read.
+     * @param nanoClock  The source of the current time in nanoseconds.
+     */
+    public RollingLatencyHistogram(Duration resolution, Duration span, LongSupplier nanoClock) {
+        if (resolution.isZero() || resolution.isNegative())
+            throw new IllegalArgumentException("Resolution must be positive");
+        this.resolutionNanos = resolution.toNanos();
+        this.slices = new Slice[slicesIn(span) + 1];
+        for (int index = 0; index < slices.length; index++)
+            slices[index] = new Slice();
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    public void record(long value) {
+        long sliceId = currentSliceId();
+        Slice slice = slices[(int) (sliceId % slices.length)];
+        if (slice.id != sliceId)
+            slice.rotate(sliceId);
+        slice.histogram.record(value);
+    }
+
+    /**
+     * Merges the slices of the given window, the current partial slice included.
+     *
+     * @param window The window to read, capped to the span of the histogram.
+     * @return A new histogram with the samples of the window.
+     */
+    public LatencyHistogram snapshot(Duration window) {
+        LatencyHistogram merged = new LatencyHistogram();
+        long sliceId = currentSliceId();
+        int count = Math.min(slicesIn(window), slices.length);
+        for (int offset = 0; offset < count; offset++) {
+            long id = sliceId - offset;
+            if (id < 0)
+                break;
+            Slice slice = slices[(int) (id % slices.length)];
+            if (slice.id == id)
+                merged.add(slice.histogram);
+        }
+        return merged;
+    }
+
+    private long currentSliceId() {
+        return (nanoClock.getAsLong() - origin) / resolutionNanos;
+    }
+
+    private int slicesIn(Duration duration) {
+        return (int) Math.max(1, (duration.toNanos() + resolutionNanos - 1) / resolutionNanos);
+    }
+
+    private static class Slice {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private volatile long id = -1;
+
+        private synchronized void rotate(long sliceId) {
+            if (id == sliceId)
+                return;
+            histogram.reset();
+            id = sliceId;
+        }
+    }
+}
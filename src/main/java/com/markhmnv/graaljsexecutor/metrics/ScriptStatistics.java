@@ -0,0 +1,85 @@
+package com.markhmnv.graaljsexecutor.metrics;
+
+import com.markhmnv.graaljsexecutor.config.StatisticsProperties;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.projection.StatusCount;
+import com.markhmnv.graaljsexecutor.model.response.LatencyStats;
+import com.markhmnv.graaljsexecutor.model.response.ScriptStats;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory number of scripts per status, kept up to date on every transition,
+ * so statistics are answered without counting rows. Execution times are kept in
+ * a rolling histogram to report percentiles over the configured windows.
+ */
+@Component
+public class ScriptStatistics {
+    private final Map<ScriptStatus, AtomicLong> counts = new EnumMap<>(ScriptStatus.class);
+    private final List<Duration> windows;
+    private final RollingLatencyHistogram executionTimes;
+
+    public ScriptStatistics(StatisticsProperties properties) {
+        for (ScriptStatus status : ScriptStatus.values())
+            counts.put(status, new AtomicLong());
+        this.windows = List.copyOf(properties.getWindows());
+        Duration span = windows.stream().max(Comparator.naturalOrder()).orElse(properties.getResolution());
+        this.executionTimes = new RollingLatencyHistogram(properties.getResolution(), span);
+    }
+
+    public void created(ScriptStatus status) {
+        counts.get(status).incrementAndGet();
+    }
+
+    public void transitioned(ScriptStatus from, ScriptStatus to) {
+        counts.get(from).decrementAndGet();
+        counts.get(to).incrementAndGet();
+    }
+
+    public void removed(ScriptStatus status) {
+        counts.get(status).decrementAndGet();
+    }
+
+    /**
+     * @param executionTime The execution time of a finished script in milliseconds.
+     */
+    public void recordExecutionTime(long executionTime) {
+        executionTimes.record(executionTime);
+    }
+
+    /**
+     * Replaces the counters with the numbers counted by the database.
+     */
+    public void reconcile(List<StatusCount> statusCounts) {
+        Map<ScriptStatus, Long> actual = new EnumMap<>(ScriptStatus.class);
+        for (StatusCount statusCount : statusCounts)
+            actual.put(statusCount.getStatus(), statusCount.getCount());
+        counts.forEach((status, count) -> count.set(actual.getOrDefault(status, 0L)));
+    }
+
+    public ScriptStats getStats() {
+        Map<ScriptStatus, Long> snapshot = new EnumMap<>(ScriptStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, count.get()));
+        Map<String, LatencyStats> percentiles = new LinkedHashMap<>();
+        for (Duration window : windows)
+            percentiles.put(format(window), LatencyStats.of(executionTimes.snapshot(window), 1));
+        return ScriptStats.builder()
+                .total(snapshot.values().stream().mapToLong(Long::longValue).sum())
+                .counts(snapshot)
+                .executionTime(percentiles)
+                .build();
+    }
+
+    private static String format(Duration window) {
+        if (window.toMillis() % 1000 != 0)
+            return window.toMillis() + "ms";
+        if (window.toSeconds() % 3600 == 0)
+            return window.toHours() + "h";
+        if (window.toSeconds() % 60 == 0)
+            return window.toMinutes() + "m";
+        return window.toSeconds() + "s";
+    }
+}
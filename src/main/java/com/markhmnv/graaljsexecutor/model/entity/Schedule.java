@@ -0,0 +1,44 @@
+package com.markhmnv.graaljsexecutor.model.entity;
+
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+@Entity
+@Table
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Schedule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 1000000)
+    private String body;
+
+    private String cron;
+
+    private Long fixedRate;
+
+    private String timezone;
+
+    @Enumerated(EnumType.STRING)
+    private OverlapPolicy overlapPolicy;
+
+    @Enumerated(EnumType.STRING)
+    private CatchUpPolicy catchUpPolicy;
+
+    private boolean retainContext;
+
+    private String tenant;
+
+    @CreationTimestamp
+    private Instant createdAt;
+}
@@ -0,0 +1,32 @@
+package com.markhmnv.graaljsexecutor.model.entity;
+
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(indexes = @Index(columnList = "scheduleId"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ScheduleRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long scheduleId;
+
+    @Enumerated(EnumType.STRING)
+    private ScriptStatus status;
+
+    private Instant startedAt;
+
+    private Long executionTime;
+
+    @Column(length = 1000000)
+    private String output;
+}
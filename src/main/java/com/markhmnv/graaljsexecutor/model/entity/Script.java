@@ -3,7 +3,9 @@ package com.markhmnv.graaljsexecutor.model.entity;
 import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
@@ -30,4 +32,12 @@ public class Script {
     private String output;
 
     private LocalDateTime executeAt;
+
+    private String tenant;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
 }
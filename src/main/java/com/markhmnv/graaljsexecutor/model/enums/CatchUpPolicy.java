@@ -0,0 +1,10 @@
+package com.markhmnv.graaljsexecutor.model.enums;
+
+/**
+ * What happens with fire times that were missed, e.g. while the server was down.
+ * RUN_ALL fires the missed times back to back, so it requires OverlapPolicy.ALLOW,
+ * otherwise every missed run but the first would be skipped as overlapping.
+ */
+public enum CatchUpPolicy {
+    SKIP, RUN_ONCE, RUN_ALL
+}
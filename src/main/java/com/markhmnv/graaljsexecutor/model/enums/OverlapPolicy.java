@@ -0,0 +1,8 @@
+package com.markhmnv.graaljsexecutor.model.enums;
+
+/**
+ * What happens when a schedule fires while its previous run is still executing.
+ */
+public enum OverlapPolicy {
+    SKIP, ALLOW
+}
@@ -1,5 +1,12 @@
 package com.markhmnv.graaljsexecutor.model.enums;
 
 public enum ScriptStatus {
-    EXECUTING, FAILED, COMPLETED, QUEUED, STOPPED
+    EXECUTING, FAILED, COMPLETED, QUEUED, STOPPED;
+
+    /**
+     * A terminal script will never change again, so everything derived from it can be cached.
+     */
+    public boolean isTerminal() {
+        return this == FAILED || this == COMPLETED || this == STOPPED;
+    }
 }
@@ -0,0 +1,25 @@
+package com.markhmnv.graaljsexecutor.model.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Lightweight view of a script used to answer conditional requests without loading its body and output.
+ */
+@Data
+@AllArgsConstructor
+public class ScriptRevision {
+    private Long id;
+    private Instant updatedAt;
+    private Long version;
+
+    public String eTag() {
+        return id + "-" + version;
+    }
+
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+}
@@ -0,0 +1,15 @@
+package com.markhmnv.graaljsexecutor.model.projection;
+
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Number of scripts in a status, as counted by the database.
+ */
+@Data
+@AllArgsConstructor
+public class StatusCount {
+    private ScriptStatus status;
+    private Long count;
+}
@@ -0,0 +1,36 @@
+package com.markhmnv.graaljsexecutor.model.response;
+
+import com.markhmnv.graaljsexecutor.metrics.LatencyHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Percentiles of a LatencyHistogram, in milliseconds.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class LatencyStats {
+    private long count;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double p999;
+    private double max;
+
+    /**
+     * @param histogram The histogram to summarize.
+     * @param unitsPerMillisecond How many recorded units make up a millisecond, e.g. 1000 for microseconds.
+     */
+    public static LatencyStats of(LatencyHistogram histogram, double unitsPerMillisecond) {
+        return LatencyStats.builder()
+                .count(histogram.getTotalCount())
+                .p50(histogram.getValueAtPercentile(50) / unitsPerMillisecond)
+                .p90(histogram.getValueAtPercentile(90) / unitsPerMillisecond)
+                .p99(histogram.getValueAtPercentile(99) / unitsPerMillisecond)
+                .p999(histogram.getValueAtPercentile(99.9) / unitsPerMillisecond)
+                .max(histogram.getMaxValue() / unitsPerMillisecond)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.markhmnv.graaljsexecutor.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class LibraryInfo {
+    private String name;
+    private long size;
+    private Instant updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.markhmnv.graaljsexecutor.model.response;
+
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class ScheduleInfo {
+    private long id;
+    private String body;
+    private String cron;
+    private Long fixedRate;
+    private String timezone;
+    private OverlapPolicy overlapPolicy;
+    private CatchUpPolicy catchUpPolicy;
+    private boolean retainContext;
+    private String tenant;
+    private Instant createdAt;
+}
@@ -0,0 +1,20 @@
+package com.markhmnv.graaljsexecutor.model.response;
+
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class ScheduleRunInfo {
+    private long id;
+    private long scheduleId;
+    private ScriptStatus status;
+    private Instant startedAt;
+    private long executionTime;
+    private String output;
+}
@@ -17,4 +17,5 @@ public class ScriptFullInfo {
     private String body;
     private ScriptStatus status;
     private LocalDateTime executeAt;
+    private String tenant;
 }
@@ -9,7 +9,7 @@ import lombok.Data;
 @AllArgsConstructor
 @Builder
 public class ScriptGeneralInfo {
-    private long id;
+    private Long id;
     private String output;
     private ScriptStatus status;
 }
@@ -0,0 +1,17 @@
+package com.markhmnv.graaljsexecutor.model.response;
+
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class ScriptStats {
+    private long total;
+    private Map<ScriptStatus, Long> counts;
+    private Map<String, LatencyStats> executionTime;
+}
@@ -0,0 +1,19 @@
+package com.markhmnv.graaljsexecutor.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class TenantStats {
+    private String tenant;
+    private int weight;
+    private int queued;
+    private int running;
+    private long completed;
+    private long cpuTimeInWindow;
+    private Long cpuQuota;
+    private LatencyStats queueLatency;
+}
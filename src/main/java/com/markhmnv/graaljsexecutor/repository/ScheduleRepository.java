@@ -0,0 +1,22 @@
+package com.markhmnv.graaljsexecutor.repository;
+
+import com.markhmnv.graaljsexecutor.model.entity.Schedule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+    /**
+     * Locks the schedule row until the end of the transaction, serializing the deletion of a schedule
+     * with the recording of its runs.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Schedule s where s.id = :id")
+    Optional<Schedule> findForUpdateById(@Param("id") Long id);
+}
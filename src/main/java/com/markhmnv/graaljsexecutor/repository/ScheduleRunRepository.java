@@ -0,0 +1,18 @@
+package com.markhmnv.graaljsexecutor.repository;
+
+import com.markhmnv.graaljsexecutor.model.entity.ScheduleRun;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduleRunRepository extends JpaRepository<ScheduleRun, Long> {
+    List<ScheduleRun> findByScheduleId(Long scheduleId, Sort sort);
+
+    Optional<ScheduleRun> findFirstByScheduleIdOrderByIdDesc(Long scheduleId);
+
+    void deleteByScheduleId(Long scheduleId);
+}
@@ -2,13 +2,67 @@ package com.markhmnv.graaljsexecutor.repository;
 
 import com.markhmnv.graaljsexecutor.model.entity.Script;
 import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.projection.ScriptRevision;
+import com.markhmnv.graaljsexecutor.model.projection.StatusCount;
+import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ScriptRepository extends JpaRepository<Script, Long> {
-    List<Script> findByStatus(ScriptStatus status, Sort sort);
+    List<Script> findByStatusIn(Collection<ScriptStatus> statuses);
+
+    /**
+     * Streams the listing of all scripts from a database cursor. Rows are read as unmanaged projections,
+     * so they do not pile up in the persistence context. Must be consumed within a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo(s.id, s.output, s.status) from Script s")
+    Stream<ScriptGeneralInfo> streamAllBy(Sort sort);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo(s.id, s.output, s.status) " +
+            "from Script s where s.status = :status")
+    Stream<ScriptGeneralInfo> streamByStatus(@Param("status") ScriptStatus status, Sort sort);
+
+    @Query("select new com.markhmnv.graaljsexecutor.model.projection.ScriptRevision(s.id, s.updatedAt, s.version) " +
+            "from Script s where s.id = :id")
+    Optional<ScriptRevision> findRevisionById(@Param("id") Long id);
+
+    @Query("select new com.markhmnv.graaljsexecutor.model.projection.StatusCount(s.status, count(s)) " +
+            "from Script s group by s.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Optimistically locked status update, applied only if the row still has the expected version.
+     *
+     * @return 1 if the row was updated, 0 if the version changed or the script was deleted.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Script s set s.status = :status, s.executionTime = :executionTime, s.output = :output, " +
+            "s.updatedAt = :updatedAt, s.version = s.version + 1 where s.id = :id and s.version = :version")
+    int updateStatus(@Param("id") Long id, @Param("version") Long version, @Param("status") ScriptStatus status,
+                     @Param("executionTime") Long executionTime, @Param("output") String output,
+                     @Param("updatedAt") Instant updatedAt);
 }
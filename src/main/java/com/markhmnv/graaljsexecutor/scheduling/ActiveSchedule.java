@@ -0,0 +1,132 @@
+package com.markhmnv.graaljsexecutor.scheduling;
+
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory state of a registered schedule: its parsed source, the future of its trigger,
+ * the number of runs in flight and, optionally, a warm Context retained between runs.
+ */
+public class ActiveSchedule {
+    @Getter
+    private final Long id;
+    private final Source source;
+    private final OverlapPolicy overlapPolicy;
+    private final boolean retainContext;
+    private final AtomicInteger runningCount = new AtomicInteger();
+    private final ReentrantLock contextLock = new ReentrantLock();
+    private final ByteArrayOutputStream warmOutput = new ByteArrayOutputStream();
+    private volatile Context warmContext;
+    private volatile boolean closed;
+    @Setter
+    private volatile ScheduledFuture<?> future;
+
+    public ActiveSchedule(Long id, Source source, OverlapPolicy overlapPolicy, boolean retainContext) {
+        this.id = id;
+        this.source = source;
+        this.overlapPolicy = overlapPolicy;
+        // A module runs only once per Context, so every run of a module body needs a fresh one
+        this.retainContext = retainContext && !ScriptRuntime.isModule(source);
+    }
+
+    /**
+     * Registers a new run according to the OverlapPolicy.
+     *
+     * @return false if the run has to be skipped.
+     */
+    public boolean tryStartRun() {
+        if (closed)
+            return false;
+        if (overlapPolicy == OverlapPolicy.ALLOW) {
+            runningCount.incrementAndGet();
+            return true;
+        }
+        return runningCount.compareAndSet(0, 1);
+    }
+
+    public void finishRun() {
+        runningCount.decrementAndGet();
+    }
+
+    /**
+     * Evaluates the schedule source. The warm Context is used if it is retained and not busy with
+     * an overlapping run, otherwise a fresh Context is created for this run.
+     *
+     * @return The console output of the run.
+     */
+    public String execute(ScriptRuntime scriptRuntime) throws IOException {
+        if (retainContext && contextLock.tryLock()) {
+            try {
+                return executeWarm(scriptRuntime);
+            } finally {
+                contextLock.unlock();
+            }
+        }
+
+        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+             PrintStream printStream = new PrintStream(outputStream);
+             Context context = scriptRuntime.contextWith(printStream)) {
+            context.eval(source);
+            return outputStream.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private String executeWarm(ScriptRuntime scriptRuntime) {
+        if (closed)
+            throw new IllegalStateException("Schedule was deleted");
+        if (warmContext == null) {
+            warmContext = scriptRuntime.contextWith(warmOutput);
+            // close() may have run between the check above and the assignment without seeing the new context
+            if (closed) {
+                closeWarmContext();
+                throw new IllegalStateException("Schedule was deleted");
+            }
+        }
+        warmOutput.reset();
+        try {
+            warmContext.eval(source);
+            return warmOutput.toString(StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            // A failed run may leave the context in an unusable state, the next run starts with a fresh one
+            closeWarmContext();
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels further runs and releases the warm Context, cancelling a run that is still using it.
+     * Returns once no run holds the warm Context anymore.
+     */
+    public void close() {
+        closed = true;
+        if (future != null)
+            future.cancel(false);
+        // Cancel the running evaluation first so that the run holding the lock releases it promptly
+        closeWarmContext();
+        contextLock.lock();
+        try {
+            closeWarmContext();
+        } finally {
+            contextLock.unlock();
+        }
+    }
+
+    private void closeWarmContext() {
+        Context context = warmContext;
+        warmContext = null;
+        if (context != null)
+            context.close(true);
+    }
+}
@@ -0,0 +1,246 @@
+package com.markhmnv.graaljsexecutor.scheduling;
+
+import com.markhmnv.graaljsexecutor.config.TenantProperties;
+import com.markhmnv.graaljsexecutor.exception.InvalidTenantException;
+import com.markhmnv.graaljsexecutor.model.response.LatencyStats;
+import com.markhmnv.graaljsexecutor.model.response.TenantStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Dispatches scripts to a fixed pool of workers with deficit round-robin across per-tenant queues,
+ * so a tenant flooding the executor only delays its own scripts. Each turn a tenant may start
+ * as many scripts as its weight, within its concurrency limit and CPU time quota.
+ * Tenant IDs come from a client header, so the number of tracked tenants is capped by
+ * {@code script.tenants.max-tenants} and idle tenants are evicted to make room for new ones.
+ */
+@Component
+public class FairShareDispatcher implements DisposableBean {
+    private static final double MICROS_PER_MILLISECOND = 1000;
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final TenantProperties properties;
+    private final TaskScheduler taskScheduler;
+    private final ExecutorService workers;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, TenantQueue> tenants = new HashMap<>();
+    private final Deque<TenantQueue> ring = new ArrayDeque<>();
+    private int running;
+
+    public FairShareDispatcher(TenantProperties properties, TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("ScriptWorker-"));
+    }
+
+    /**
+     * Checks a tenant ID received from a client before anything is accounted to it.
+     *
+     * @throws InvalidTenantException if the ID is empty, too long or contains unsupported characters.
+     */
+    public void validateTenant(String tenant) {
+        if (tenant == null || !TENANT_ID.matcher(tenant).matches())
+            throw new InvalidTenantException();
+    }
+
+    /**
+     * Queues a task of a tenant and starts it as soon as the tenant gets its turn.
+     *
+     * @param tenant The tenant the task is accounted to.
+     * @param task   The task, expected to handle its own failures.
+     */
+    public void submit(String tenant, Runnable task) {
+        lock.lock();
+        try {
+            TenantQueue queue = queueOf(tenant);
+            queue.tasks.addLast(new TenantQueue.PendingTask(task, System.nanoTime()));
+            if (!queue.inRing) {
+                queue.inRing = true;
+                ring.addLast(queue);
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<TenantStats> getTenantStats() {
+        List<TenantStats> stats = new ArrayList<>();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (TenantQueue queue : tenants.values()) {
+                queue.rollWindow(now, properties.getQuotaWindow().toNanos());
+                stats.add(TenantStats.builder()
+                        .tenant(queue.tenant)
+                        .weight(queue.weight)
+                        .queued(queue.tasks.size())
+                        .running(queue.running)
+                        .completed(queue.completed)
+                        .cpuTimeInWindow(TimeUnit.NANOSECONDS.toMillis(queue.cpuNanosInWindow))
+                        .cpuQuota(queue.cpuQuotaNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(queue.cpuQuotaNanos) : null)
+                        .queueLatency(LatencyStats.of(queue.queueLatency.snapshot(properties.getLatencyWindow()),
+                                MICROS_PER_MILLISECOND))
+                        .build());
+            }
+        } finally {
+            lock.unlock();
+        }
+        stats.sort(Comparator.comparing(TenantStats::getTenant));
+        return stats;
+    }
+
+    /**
+     * Starts pending tasks while workers are free. Tenants that cannot start a task right now
+     * are skipped, the loop ends once a full round over the ring started nothing.
+     * Must be called with the lock held.
+     */
+    private void dispatch() {
+        long now = System.nanoTime();
+        int skipped = 0;
+        while (running < properties.getWorkers() && !ring.isEmpty() && skipped < ring.size()) {
+            TenantQueue queue = ring.peekFirst();
+            queue.rollWindow(now, properties.getQuotaWindow().toNanos());
+            if (!queue.canStart()) {
+                if (queue.isOverQuota())
+                    scheduleQuotaRefresh(queue);
+                ring.addLast(ring.pollFirst());
+                skipped++;
+                continue;
+            }
+
+            if (queue.deficit < 1)
+                queue.deficit += queue.weight;
+            start(queue, queue.tasks.pollFirst(), now);
+            queue.deficit--;
+            skipped = 0;
+
+            if (queue.tasks.isEmpty()) {
+                ring.pollFirst();
+                queue.inRing = false;
+                queue.deficit = 0;
+            } else if (queue.deficit < 1) {
+                ring.addLast(ring.pollFirst());
+            }
+        }
+    }
+
+    private void start(TenantQueue queue, TenantQueue.PendingTask pendingTask, long now) {
+        queue.running++;
+        running++;
+        queue.queueLatency.record(TimeUnit.NANOSECONDS.toMicros(now - pendingTask.enqueuedAt()));
+        try {
+            workers.execute(() -> run(queue, pendingTask.task()));
+        } catch (RejectedExecutionException e) {
+            // The dispatcher is shutting down
+            queue.running--;
+            running--;
+        }
+    }
+
+    private void run(TenantQueue queue, Runnable task) {
+        long cpuStart = currentThreadCpuTime();
+        try {
+            task.run();
+        } catch (RuntimeException ignored) {
+            // Failures are recorded by the task itself
+        } finally {
+            long cpuTime = currentThreadCpuTime() - cpuStart;
+            lock.lock();
+            try {
+                queue.running--;
+                running--;
+                queue.completed++;
+                queue.cpuNanosInWindow += cpuTime;
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Dispatches again when the quota window of a throttled tenant ends.
+     */
+    private void scheduleQuotaRefresh(TenantQueue queue) {
+        if (queue.refreshScheduled)
+            return;
+        queue.refreshScheduled = true;
+        long remaining = queue.windowStart + properties.getQuotaWindow().toNanos() - System.nanoTime();
+        taskScheduler.schedule(() -> {
+            lock.lock();
+            try {
+                queue.refreshScheduled = false;
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }, Instant.now().plus(Duration.ofNanos(Math.max(0, remaining))));
+    }
+
+    /**
+     * Returns the queue of a tenant, creating it if there is room. When the cap is reached, idle tenants
+     * are evicted first and, if none is idle, the task is accounted to the default tenant.
+     * Must be called with the lock held.
+     */
+    private TenantQueue queueOf(String tenant) {
+        TenantQueue queue = tenants.get(tenant);
+        if (queue != null)
+            return queue;
+        if (tenants.size() >= properties.getMaxTenants() && !properties.isConfigured(tenant)) {
+            evictIdleTenants();
+            if (tenants.size() >= properties.getMaxTenants())
+                tenant = TenantProperties.DEFAULT_TENANT;
+        }
+        return tenants.computeIfAbsent(tenant, this::newTenantQueue);
+    }
+
+    /**
+     * Removes tenants without pending or running tasks and without CPU time in their current quota window,
+     * so dropping their accounting does not reset a quota. Configured tenants are kept.
+     */
+    private void evictIdleTenants() {
+        long now = System.nanoTime();
+        tenants.values().removeIf(queue -> {
+            queue.rollWindow(now, properties.getQuotaWindow().toNanos());
+            return !properties.isConfigured(queue.tenant) && queue.tasks.isEmpty() && queue.running == 0
+                    && queue.cpuNanosInWindow == 0 && !queue.refreshScheduled;
+        });
+    }
+
+    private TenantQueue newTenantQueue(String tenant) {
+        TenantQueue queue = new TenantQueue(tenant, properties.getLatencyWindow());
+        queue.weight = properties.weightOf(tenant);
+        queue.maxConcurrency = properties.maxConcurrencyOf(tenant);
+        Duration cpuQuota = properties.cpuQuotaOf(tenant);
+        queue.cpuQuotaNanos = cpuQuota == null ? 0 : cpuQuota.toNanos();
+        queue.windowStart = System.nanoTime();
+        return queue;
+    }
+
+    private long currentThreadCpuTime() {
+        return threadMXBean.isCurrentThreadCpuTimeSupported()
+                ? threadMXBean.getCurrentThreadCpuTime()
+                : System.nanoTime();
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
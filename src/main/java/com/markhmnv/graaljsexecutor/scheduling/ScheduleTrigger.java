@@ -0,0 +1,56 @@
+package com.markhmnv.graaljsexecutor.scheduling;
+
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.time.Instant;
+
+/**
+ * Wraps a cron or fixed-rate trigger and applies a CatchUpPolicy to fire times that are already in the past.
+ */
+public class ScheduleTrigger implements Trigger {
+    static final int MAX_CATCH_UP_STEPS = 1000;
+
+    private final Trigger delegate;
+    private final CatchUpPolicy catchUpPolicy;
+    private final Instant resumeFrom;
+
+    /**
+     * @param delegate      The trigger computing the regular fire times.
+     * @param catchUpPolicy The policy for fire times that were missed.
+     * @param resumeFrom    The time of the last known run, used to detect fire times missed before the first execution.
+     *                      If null, the schedule starts from scratch.
+     */
+    public ScheduleTrigger(Trigger delegate, CatchUpPolicy catchUpPolicy, Instant resumeFrom) {
+        this.delegate = delegate;
+        this.catchUpPolicy = catchUpPolicy;
+        this.resumeFrom = resumeFrom;
+    }
+
+    @Override
+    public Instant nextExecution(TriggerContext triggerContext) {
+        TriggerContext context = triggerContext;
+        if (context.lastScheduledExecution() == null && resumeFrom != null)
+            context = new SimpleTriggerContext(resumeFrom, resumeFrom, resumeFrom);
+
+        Instant next = delegate.nextExecution(context);
+        Instant now = triggerContext.getClock().instant();
+        if (next == null || !next.isBefore(now))
+            return next;
+
+        return switch (catchUpPolicy) {
+            case RUN_ALL -> next;
+            case RUN_ONCE -> now;
+            case SKIP -> {
+                for (int step = 0; step < MAX_CATCH_UP_STEPS && next != null && next.isBefore(now); step++)
+                    next = delegate.nextExecution(new SimpleTriggerContext(next, next, next));
+                // After a long downtime of a frequent schedule, continue from now instead of walking every missed time
+                if (next != null && next.isBefore(now))
+                    next = delegate.nextExecution(new SimpleTriggerContext(now, now, now));
+                yield next;
+            }
+        };
+    }
+}
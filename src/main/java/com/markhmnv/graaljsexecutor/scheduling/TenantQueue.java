@@ -0,0 +1,57 @@
+package com.markhmnv.graaljsexecutor.scheduling;
+
+import com.markhmnv.graaljsexecutor.metrics.RollingLatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pending scripts and accounting of a single tenant. Guarded by the lock of FairShareDispatcher,
+ * except for the queue latency histogram, which is lock-free.
+ */
+class TenantQueue {
+    final String tenant;
+    final Deque<PendingTask> tasks = new ArrayDeque<>();
+    final RollingLatencyHistogram queueLatency;
+    int weight;
+    int maxConcurrency;
+    long cpuQuotaNanos;
+    int running;
+    int deficit;
+    boolean inRing;
+    long completed;
+    long windowStart;
+    long cpuNanosInWindow;
+    boolean refreshScheduled;
+
+    /**
+     * @param latencyWindow The window over which the queue latency is reported. It is kept in two slices,
+     *                      so a report covers between half and all of the window.
+     */
+    TenantQueue(String tenant, Duration latencyWindow) {
+        this.tenant = tenant;
+        this.queueLatency = new RollingLatencyHistogram(latencyWindow.dividedBy(2), latencyWindow);
+    }
+
+    /**
+     * Starts a new quota window once the current one has elapsed.
+     */
+    void rollWindow(long now, long windowNanos) {
+        if (now - windowStart >= windowNanos) {
+            windowStart = now;
+            cpuNanosInWindow = 0;
+        }
+    }
+
+    boolean isOverQuota() {
+        return cpuQuotaNanos > 0 && cpuNanosInWindow >= cpuQuotaNanos;
+    }
+
+    boolean canStart() {
+        return !tasks.isEmpty() && running < maxConcurrency && !isOverQuota();
+    }
+
+    record PendingTask(Runnable task, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.markhmnv.graaljsexecutor.service;
+
+import com.markhmnv.graaljsexecutor.engine.LibraryFileSystem;
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.exception.InvalidLibraryException;
+import com.markhmnv.graaljsexecutor.exception.LibraryNotFoundException;
+import com.markhmnv.graaljsexecutor.model.response.LibraryInfo;
+import lombok.RequiredArgsConstructor;
+import org.graalvm.polyglot.PolyglotException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Manages the local store of ES module libraries that scripts can import by name.
+ */
+@Service
+@RequiredArgsConstructor
+public class LibraryService {
+    private static final Pattern LIBRARY_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final ScriptRuntime scriptRuntime;
+
+    public List<LibraryInfo> getLibraries() {
+        try (Stream<Path> files = Files.list(scriptRuntime.getLibrariesDir())) {
+            return files.filter(file -> file.getFileName().toString().endsWith(LibraryFileSystem.EXTENSION))
+                    .map(this::toLibraryInfo)
+                    .sorted(Comparator.comparing(LibraryInfo::getName))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getLibrary(String name) {
+        try {
+            return Files.readString(existingLibraryPath(name), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores a library, replacing the previous version with the same name, and preloads it on the shared engine.
+     *
+     * @param name The name under which scripts import the library, e.g. {@code import { chunk } from 'lodash'}.
+     * @param body The ES module source of the library.
+     * @return The LibraryInfo object representing the stored library.
+     * @throws InvalidLibraryException if the name is invalid or the library has syntax errors.
+     */
+    public LibraryInfo saveLibrary(String name, String body) {
+        Path path = libraryPath(name);
+        try {
+            scriptRuntime.checkLibrarySyntax(name, body);
+        } catch (PolyglotException e) {
+            throw new InvalidLibraryException(e.getMessage());
+        }
+
+        try {
+            Path temp = Files.createTempFile(scriptRuntime.getLibrariesDir(), name, ".tmp");
+            Files.writeString(temp, body, StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            scriptRuntime.preloadLibrary(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return toLibraryInfo(path);
+    }
+
+    public void deleteLibrary(String name) {
+        try {
+            Files.delete(existingLibraryPath(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path existingLibraryPath(String name) {
+        Path path = libraryPath(name);
+        if (!Files.isRegularFile(path))
+            throw new LibraryNotFoundException();
+        return path;
+    }
+
+    private Path libraryPath(String name) {
+        if (name == null || !LIBRARY_NAME.matcher(name).matches())
+            throw new InvalidLibraryException("Library name may only contain letters, digits, '-' and '_'");
+        return scriptRuntime.getLibrariesDir().resolve(name + LibraryFileSystem.EXTENSION);
+    }
+
+    private LibraryInfo toLibraryInfo(Path path) {
+        try {
+            String fileName = path.getFileName().toString();
+            return LibraryInfo.builder()
+                    .name(fileName.substring(0, fileName.length() - LibraryFileSystem.EXTENSION.length()))
+                    .size(Files.size(path))
+                    .updatedAt(Files.getLastModifiedTime(path).toInstant())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.markhmnv.graaljsexecutor.service;
+
+import com.markhmnv.graaljsexecutor.config.TenantProperties;
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.exception.InvalidScheduleException;
+import com.markhmnv.graaljsexecutor.exception.InvalidTenantException;
+import com.markhmnv.graaljsexecutor.exception.ScheduleNotFoundException;
+import com.markhmnv.graaljsexecutor.mapper.ScheduleMapper;
+import com.markhmnv.graaljsexecutor.model.entity.Schedule;
+import com.markhmnv.graaljsexecutor.model.entity.ScheduleRun;
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleRunInfo;
+import com.markhmnv.graaljsexecutor.repository.ScheduleRepository;
+import com.markhmnv.graaljsexecutor.repository.ScheduleRunRepository;
+import com.markhmnv.graaljsexecutor.scheduling.ActiveSchedule;
+import com.markhmnv.graaljsexecutor.scheduling.FairShareDispatcher;
+import com.markhmnv.graaljsexecutor.scheduling.ScheduleTrigger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.markhmnv.graaljsexecutor.model.enums.ScriptStatus.*;
+
+@Service
+@RequiredArgsConstructor
+public class ScheduleService {
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleRunRepository scheduleRunRepository;
+    private final ScheduleMapper scheduleMapper;
+    private final TaskScheduler taskScheduler;
+    private final ScriptRuntime scriptRuntime;
+    private final FairShareDispatcher dispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, ActiveSchedule> activeSchedules = new ConcurrentHashMap<>();
+
+    public List<ScheduleInfo> getSchedules() {
+        return scheduleMapper.toScheduleInfoList(scheduleRepository.findAll(Sort.by("id").descending()));
+    }
+
+    public ScheduleInfo getSchedule(Long id) {
+        return scheduleMapper.toScheduleInfo(getScheduleById(id));
+    }
+
+    /**
+     * Retrieves the runs of a schedule, the most recent first.
+     *
+     * @param id The ID of the schedule.
+     * @return A list of ScheduleRunInfo objects representing the runs.
+     */
+    public List<ScheduleRunInfo> getScheduleRuns(Long id) {
+        getScheduleById(id);
+        return scheduleMapper.toScheduleRunInfoList(scheduleRunRepository.findByScheduleId(id, Sort.by("id").descending()));
+    }
+
+    /**
+     * Creates a recurring schedule of a script. Exactly one of cron and fixedRate must be provided.
+     *
+     * @param body          The script to be executed on every run.
+     * @param cron          The cron expression of the schedule.
+     * @param fixedRate     The period between runs in milliseconds.
+     * @param timezone      The timezone of the cron expression. If null, the system timezone will be used.
+     * @param overlapPolicy What happens when a run is due while the previous one is still executing.
+     * @param catchUpPolicy What happens with runs that were missed. RUN_ALL requires the ALLOW overlapPolicy.
+     * @param retainContext Whether runs should reuse a warm Context, keeping the global state between runs.
+     *                      Ignored for bodies using import or export, which run as modules in a fresh Context every time.
+     * @param tenant        The tenant the runs are accounted to.
+     * @return The ScheduleInfo object representing the created schedule.
+     * @throws InvalidScheduleException if the schedule parameters are invalid.
+     * @throws InvalidTenantException if the tenant ID is invalid.
+     */
+    public ScheduleInfo createSchedule(String body, String cron, Long fixedRate, String timezone,
+                                       OverlapPolicy overlapPolicy, CatchUpPolicy catchUpPolicy, boolean retainContext,
+                                       String tenant) {
+        dispatcher.validateTenant(tenant);
+        // Missed runs are fired back to back and would be skipped as overlapping, leaving a single run like RUN_ONCE
+        if (catchUpPolicy == CatchUpPolicy.RUN_ALL && overlapPolicy != OverlapPolicy.ALLOW)
+            throw new InvalidScheduleException("catchUpPolicy RUN_ALL requires overlapPolicy ALLOW");
+        Schedule schedule = Schedule.builder()
+                .body(body)
+                .cron(cron)
+                .fixedRate(fixedRate)
+                .timezone(timezone)
+                .overlapPolicy(overlapPolicy)
+                .catchUpPolicy(catchUpPolicy)
+                .retainContext(retainContext)
+                .tenant(tenant)
+                .build();
+        Trigger trigger = triggerFor(schedule);
+
+        Schedule saved = scheduleRepository.save(schedule);
+        activate(saved, new ScheduleTrigger(trigger, catchUpPolicy, null));
+        return scheduleMapper.toScheduleInfo(saved);
+    }
+
+    @Transactional
+    public void deleteSchedule(Long id) {
+        Schedule schedule = scheduleRepository.findForUpdateById(id).orElseThrow(ScheduleNotFoundException::new);
+        ActiveSchedule activeSchedule = activeSchedules.remove(id);
+        if (activeSchedule != null)
+            activeSchedule.close();
+        scheduleRunRepository.deleteByScheduleId(id);
+        scheduleRepository.delete(schedule);
+    }
+
+    /**
+     * Registers the persisted schedules again after a restart, catching up on the runs missed in the meantime.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreSchedules() {
+        for (Schedule schedule : scheduleRepository.findAll()) {
+            Instant lastRun = scheduleRunRepository.findFirstByScheduleIdOrderByIdDesc(schedule.getId())
+                    .map(ScheduleRun::getStartedAt)
+                    .orElse(schedule.getCreatedAt());
+            activate(schedule, new ScheduleTrigger(triggerFor(schedule), schedule.getCatchUpPolicy(), lastRun));
+        }
+    }
+
+    private void activate(Schedule schedule, ScheduleTrigger trigger) {
+        ActiveSchedule activeSchedule = new ActiveSchedule(
+                schedule.getId(),
+                scriptRuntime.sourceOf("schedule-" + schedule.getId(), schedule.getBody()),
+                schedule.getOverlapPolicy(),
+                schedule.isRetainContext());
+        String tenant = schedule.getTenant() == null ? TenantProperties.DEFAULT_TENANT : schedule.getTenant();
+        activeSchedules.put(schedule.getId(), activeSchedule);
+        activeSchedule.setFuture(taskScheduler.schedule(() -> fire(activeSchedule, tenant), trigger));
+    }
+
+    /**
+     * Hands a due run over to the executor of its tenant, so the trigger keeps firing on time while runs are executing.
+     */
+    private void fire(ActiveSchedule activeSchedule, String tenant) {
+        if (activeSchedule.tryStartRun())
+            dispatcher.submit(tenant, () -> run(activeSchedule));
+    }
+
+    private void run(ActiveSchedule activeSchedule) {
+        Instant startedAt = Instant.now();
+        long startTime = System.currentTimeMillis();
+        ScriptStatus status;
+        String output;
+        try {
+            output = activeSchedule.execute(scriptRuntime);
+            status = COMPLETED;
+        } catch (Exception e) {
+            output = e.getMessage();
+            status = FAILED;
+        } finally {
+            activeSchedule.finishRun();
+        }
+        long executionTime = System.currentTimeMillis() - startTime;
+
+        if (activeSchedules.get(activeSchedule.getId()) != activeSchedule)
+            return;
+        ScheduleRun scheduleRun = ScheduleRun.builder()
+                .scheduleId(activeSchedule.getId())
+                .status(status)
+                .startedAt(startedAt)
+                .executionTime(executionTime)
+                .output(output)
+                .build();
+        // The schedule row lock orders the insert with a concurrent deleteSchedule, which removes the runs under the same lock
+        transactionTemplate.executeWithoutResult(transaction -> {
+            if (scheduleRepository.findForUpdateById(activeSchedule.getId()).isPresent())
+                scheduleRunRepository.save(scheduleRun);
+        });
+    }
+
+    private Trigger triggerFor(Schedule schedule) {
+        boolean hasCron = schedule.getCron() != null && !schedule.getCron().isEmpty();
+        if (hasCron == (schedule.getFixedRate() != null))
+            throw new InvalidScheduleException("Exactly one of cron and fixedRate must be provided");
+
+        if (!hasCron) {
+            if (schedule.getFixedRate() <= 0)
+                throw new InvalidScheduleException("fixedRate must be a positive number of milliseconds");
+            PeriodicTrigger trigger = new PeriodicTrigger(Duration.ofMillis(schedule.getFixedRate()));
+            trigger.setFixedRate(true);
+            return trigger;
+        }
+
+        try {
+            ZoneId zoneId = (schedule.getTimezone() == null || schedule.getTimezone().isEmpty())
+                    ? ZoneId.systemDefault()
+                    : ZoneId.of(schedule.getTimezone());
+            return new CronTrigger(schedule.getCron(), zoneId);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidScheduleException(e.getMessage());
+        }
+    }
+
+    private Schedule getScheduleById(Long id) {
+        return scheduleRepository.findById(id).orElseThrow(ScheduleNotFoundException::new);
+    }
+}
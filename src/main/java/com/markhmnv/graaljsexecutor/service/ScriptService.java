@@ -1,59 +1,102 @@
 package com.markhmnv.graaljsexecutor.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.markhmnv.graaljsexecutor.cache.CachedScript;
+import com.markhmnv.graaljsexecutor.cache.ScriptResponseCache;
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
 import com.markhmnv.graaljsexecutor.exception.EvaluationException;
 import com.markhmnv.graaljsexecutor.exception.ScriptExecutionStopException;
 import com.markhmnv.graaljsexecutor.exception.ScriptNotFoundException;
 import com.markhmnv.graaljsexecutor.exception.IllegalDeletionException;
+import com.markhmnv.graaljsexecutor.exception.InvalidTenantException;
 import com.markhmnv.graaljsexecutor.mapper.ScriptMapper;
+import com.markhmnv.graaljsexecutor.metrics.ScriptStatistics;
 import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
 import com.markhmnv.graaljsexecutor.model.response.ScriptFullInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScriptStats;
 import com.markhmnv.graaljsexecutor.model.entity.Script;
 import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.projection.ScriptRevision;
 import com.markhmnv.graaljsexecutor.repository.ScriptRepository;
+import com.markhmnv.graaljsexecutor.scheduling.FairShareDispatcher;
+import com.markhmnv.graaljsexecutor.state.ScriptStateMachine;
 import lombok.RequiredArgsConstructor;
 import org.graalvm.polyglot.Context;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static com.markhmnv.graaljsexecutor.model.enums.ScriptStatus.*;
 
 @Service
+@Lazy(false)
 @RequiredArgsConstructor
-public class ScriptService {
+public class ScriptService implements SmartInitializingSingleton {
+    private static final int MAX_WRITE_ATTEMPTS = 10;
+    private static final Duration WRITE_RETRY_DELAY = Duration.ofSeconds(1);
+
     private final ScriptRepository scriptRepository;
     private final ScriptMapper scriptMapper;
     private final TaskScheduler taskScheduler;
+    private final ScriptResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final ScriptRuntime scriptRuntime;
+    private final ScriptStateMachine scriptStateMachine;
+    private final FairShareDispatcher dispatcher;
+    private final ScriptStatistics scriptStatistics;
     private final Map<Long, ScheduledFuture<?>> runningScripts = new ConcurrentHashMap<>();
+    private final Map<Long, Context> runningContexts = new ConcurrentHashMap<>();
 
 
     /**
-     * Retrieves a list of scripts based on the specified status and sorting criteria.
+     * Streams the scripts with the specified status, in the specified order, from a database cursor.
+     * Each script is handed to the action as soon as it is read, so memory use does not depend on the number of scripts.
+     * The connection is held while the action writes to a client, so the transaction times out after
+     * {@code script.listing.timeout-seconds}: the deadline bounds the query and is checked again before every row.
      *
      * @param status The status of the scripts to retrieve. If null, all scripts will be retrieved.
      * @param sortBy The criteria by which the scripts should be sorted in descending order.
-     *              Valid values are: "createdAt", "updatedAt", "status", "id".
-     * @return A list of ScriptGeneralInfo objects representing the retrieved scripts.
+     *              Valid values are: "updatedAt", "status", "id".
+     * @param action The action receiving every script.
+     * @throws TransactionTimedOutException if the listing takes longer than the timeout.
      */
-    public List<ScriptGeneralInfo> getScripts(ScriptStatus status, String sortBy) {
-        List<Script> scripts;
+    @Transactional(readOnly = true, timeoutString = "${script.listing.timeout-seconds:300}")
+    public void streamScripts(ScriptStatus status, String sortBy, Consumer<ScriptGeneralInfo> action) {
         Sort sortOrder = Sort.by(sortBy).descending();
-        if (status == null)
-            scripts = scriptRepository.findAll(sortOrder);
-        else
-            scripts = scriptRepository.findByStatus(status, sortOrder);
-        return scriptMapper.toScriptGeneralInfoList(scripts);
+        try (Stream<ScriptGeneralInfo> scripts = status == null
+                ? scriptRepository.streamAllBy(sortOrder)
+                : scriptRepository.streamByStatus(status, sortOrder)) {
+            scripts.forEach(script -> {
+                checkTransactionTimeout();
+                action.accept(script);
+            });
+        }
     }
 
     public ScriptFullInfo getScript(Long id) {
@@ -61,21 +104,105 @@ public class ScriptService {
         return scriptMapper.toScriptFullInfo(script);
     }
 
-    public void deleteScript(Long id) {
+    /**
+     * Retrieves the number of scripts per status and execution time percentiles, without querying the database.
+     */
+    public ScriptStats getScriptStats() {
+        return scriptStatistics.getStats();
+    }
+
+    /**
+     * Retrieves the revision of a script, from the response cache or without loading its body and output,
+     * to answer conditional requests.
+     *
+     * @param id The ID of the script.
+     * @return The ScriptRevision of the script.
+     * @throws ScriptNotFoundException if the script does not exist.
+     */
+    public ScriptRevision getScriptRevision(Long id) {
+        CachedScript cached = responseCache.get(id);
+        if (cached != null)
+            return cached.getRevision();
+        return scriptRepository.findRevisionById(id).orElseThrow(ScriptNotFoundException::new);
+    }
+
+    /**
+     * Retrieves a script serialized as ScriptFullInfo JSON, together with the revision read in the same query,
+     * so the ETag and Last-Modified validators always describe the returned body.
+     * Serialized responses of terminal scripts are cached, since they never change.
+     *
+     * @param id The ID of the script.
+     * @return The JSON representation of the script and its revision.
+     */
+    public CachedScript getScriptResponse(Long id) {
+        CachedScript cached = responseCache.get(id);
+        if (cached != null)
+            return cached;
+
         Script script = getScriptById(id);
-        if(script.getStatus() == EXECUTING)
+        ScriptRevision revision = new ScriptRevision(script.getId(), script.getUpdatedAt(), script.getVersion());
+        CachedScript response = new CachedScript(revision, serialize(scriptMapper.toScriptFullInfo(script)));
+        if (script.getStatus().isTerminal()) {
+            responseCache.put(id, response);
+            // A delete committed between the read and the put has already evicted, so it would not evict this entry
+            boolean current = scriptRepository.findRevisionById(id)
+                    .map(latest -> Objects.equals(latest.getVersion(), revision.getVersion()))
+                    .orElse(false);
+            if (!current)
+                responseCache.evict(id);
+        }
+        return response;
+    }
+
+    /**
+     * Deletes a script. A queued script is stopped first, an executing script cannot be deleted.
+     *
+     * @param id The ID of the script to be deleted.
+     * @throws IllegalDeletionException if the script is executing.
+     * @throws ObjectOptimisticLockingFailureException if the row kept changing for all delete attempts.
+     */
+    public void deleteScript(Long id) {
+        ScriptStatus active = scriptStateMachine.current(id);
+        if (active == EXECUTING)
             throw new IllegalDeletionException();
-        scriptRepository.delete(script);
+        if (active == QUEUED) {
+            if (!scriptStateMachine.transition(id, QUEUED, STOPPED))
+                throw new IllegalDeletionException();
+            cancelScheduled(id);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Script script = getScriptById(id);
+            try {
+                scriptRepository.delete(script);
+                ScriptStatus tracked = scriptStateMachine.current(id);
+                scriptStatistics.removed(tracked != null ? tracked : script.getStatus());
+                break;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // A concurrent transition was written in between, delete the fresh row
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    // The script stays stopped, which has to reach the database before it is released
+                    if (active == QUEUED)
+                        persistTransition(id, STOPPED, null, null);
+                    throw e;
+                }
+            }
+        }
+        responseCache.evict(id);
+        scriptStateMachine.release(id);
     }
 
     /**
-     * Evaluation of a script.
+     * Evaluation of a script. The script stays queued until it is due and its tenant gets a turn on the executor.
      *
      * @param scriptRequest The script request containing the script to be evaluated.
      * @param executeAt The time when the script should be executed. If null, the current time will be used.
+     * @param tenant The tenant the execution is accounted to.
      * @return The ScriptFullInfo object representing the evaluated script.
+     * @throws InvalidTenantException if the tenant ID is invalid.
      */
-    public ScriptFullInfo evaluateScript(String scriptRequest, LocalDateTime executeAt, String timezone) {
+    public ScriptFullInfo evaluateScript(String scriptRequest, LocalDateTime executeAt, String timezone, String tenant) {
+        dispatcher.validateTenant(tenant);
         Instant now = Instant.now();
         ZoneId zoneId = (timezone == null || timezone.isEmpty())
                 ? ZoneId.systemDefault()
@@ -84,91 +211,187 @@ public class ScriptService {
                 ? now
                 : executeAt.atZone(zoneId).toInstant();
 
-        ScriptStatus initialStatus = executeAtInstant.isAfter(now) ? QUEUED : EXECUTING;
-        Script script = createAndSave(scriptRequest, executeAt, initialStatus);
+        Script script = createAndSave(scriptRequest, executeAt, tenant);
+        scriptStateMachine.register(script.getId(), QUEUED);
 
-        ScheduledFuture<?> scheduledFuture = taskScheduler.schedule(() -> executeScript(script.getId(), scriptRequest), executeAtInstant);
+        ScheduledFuture<?> scheduledFuture = taskScheduler.schedule(
+                () -> dispatcher.submit(tenant, () -> executeScript(script.getId(), scriptRequest)),
+                executeAtInstant);
         runningScripts.put(script.getId(), scheduledFuture);
+        if (scriptStateMachine.current(script.getId()) == null)
+            runningScripts.remove(script.getId());
 
         return scriptMapper.toScriptFullInfo(script);
     }
 
     /**
      * Executes a script and returns the result.
+     * The result is only written if the script was not stopped or deleted in the meantime.
      *
      * @param id   The ID of the script to be executed.
      * @param body The body of the script to be executed.
      * @throws EvaluationException if an error occurs during script execution.
      */
     private void executeScript(Long id, String body){
-        Script script = getScriptById(id);
-        script.setStatus(EXECUTING);
-        scriptRepository.save(script);
+        try {
+            if (!scriptStateMachine.transition(id, QUEUED, EXECUTING))
+                return;
+            persistTransition(id, EXECUTING, null, null);
+
+            long startTime = System.currentTimeMillis();
+            long executionTime;
+            String output;
+            ScriptStatus status;
 
-        long startTime = System.currentTimeMillis();
+            try(ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                PrintStream printStream = new PrintStream(outputStream);
+                Context context = scriptRuntime.contextWith(printStream)) {
 
-        try(ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            PrintStream printStream = new PrintStream(outputStream);
-            Context context = contextWith(printStream)) {
+                runningContexts.put(id, context);
+                if (scriptStateMachine.current(id) != EXECUTING)
+                    return;
 
-            context.eval("js", body);
-            long executionTime = System.currentTimeMillis() - startTime;
-            String output = outputStream.toString(StandardCharsets.UTF_8);
+                context.eval(scriptRuntime.sourceOf("script-" + id, body));
+                executionTime = System.currentTimeMillis() - startTime;
+                output = outputStream.toString(StandardCharsets.UTF_8);
+                status = COMPLETED;
+            } catch (Exception e){
+                executionTime = System.currentTimeMillis() - startTime;
+                output = e.getMessage();
+                status = FAILED;
+            }
 
-            updateAndSaveScript(script, executionTime, output, COMPLETED);
-        } catch (Exception e){
-            String message = e.getMessage();
-            long executionTime = System.currentTimeMillis() - startTime;
-            updateAndSaveScript(script, executionTime, message, FAILED);
-            throw new EvaluationException(message);
+            // Outside of the try block, so a failed write of the result is not mistaken for a failed evaluation
+            if (finish(id, executionTime, output, status) && status == FAILED)
+                throw new EvaluationException(output);
         } finally {
+            runningContexts.remove(id);
             runningScripts.remove(id);
         }
     }
 
+    /**
+     * Stops a queued or executing script. An executing script is cancelled by closing its context.
+     *
+     * @param id The ID of the script to be stopped.
+     * @throws ScriptExecutionStopException if the script is neither queued nor executing.
+     */
     public void stopScript(Long id) {
-        Script script = getScriptById(id);
-        if(script.getStatus() != EXECUTING && script.getStatus() != QUEUED)
+        if (scriptStateMachine.transitionToFromAny(id, STOPPED) == null) {
+            getScriptById(id);
             throw new ScriptExecutionStopException();
+        }
 
+        cancelScheduled(id);
+        Context context = runningContexts.remove(id);
+        if (context != null)
+            context.close(true);
+
+        persistTransition(id, STOPPED, null, null);
+    }
+
+    /**
+     * Marks scripts left queued or executing by a previous run of the application as stopped,
+     * since nothing is going to execute them anymore, and reconciles the status counters with the database.
+     * Runs once all singletons are created, before the web server starts accepting requests,
+     * so the statistics endpoint never serves counters that were not reconciled yet.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Script> orphaned = scriptRepository.findByStatusIn(List.of(QUEUED, EXECUTING)).stream()
+                .filter(script -> scriptStateMachine.current(script.getId()) == null)
+                .toList();
+        orphaned.forEach(script -> script.setStatus(STOPPED));
+        scriptRepository.saveAll(orphaned);
+        scriptStatistics.reconcile(scriptRepository.countByStatus());
+    }
+
+    private boolean finish(Long id, long executionTime, String output, ScriptStatus status) {
+        if (!scriptStateMachine.transition(id, EXECUTING, status))
+            return false;
+        persistTransition(id, status, executionTime, output);
+        scriptStatistics.recordExecutionTime(executionTime);
+        return true;
+    }
+
+    private void cancelScheduled(Long id) {
         ScheduledFuture<?> future = runningScripts.remove(id);
         if(future != null)
-            future.cancel(true);
-
-        script.setStatus(ScriptStatus.STOPPED);
-        scriptRepository.save(script);
+            future.cancel(false);
     }
 
-    private Script createAndSave(String body, LocalDateTime executeAt, ScriptStatus status) {
+    private Script createAndSave(String body, LocalDateTime executeAt, String tenant) {
         Script script = Script.builder()
-                .status(status)
+                .status(QUEUED)
                 .body(body)
                 .executeAt(executeAt)
+                .tenant(tenant)
                 .build();
         return scriptRepository.save(script);
     }
 
     /**
-     * Creates a Context object with the specified PrintStream for output.
+     * Writes a transition, which already happened in the state machine, to the database, and releases the script
+     * from the state machine once its terminal status is written. If the row kept changing for all write attempts,
+     * the write is retried in the background, so the script stays tracked until its status is persisted.
      *
-     * @param printStream The PrintStream to be used for printing script output.
-     * @return A Context object with the specified PrintStream.
+     * @param id            The ID of the script.
+     * @param status        The status the script was moved to.
+     * @param executionTime The execution time written together with the status.
+     * @param output        The output written together with the status.
      */
-    private Context contextWith(PrintStream printStream) {
-        return Context.newBuilder()
-                .allowExperimentalOptions(true)
-                .option("js.print", "true")
-                .option("engine.WarnInterpreterOnly", "false")
-                .out(printStream)
-                .err(printStream)
-                .build();
+    private void persistTransition(Long id, ScriptStatus status, Long executionTime, String output) {
+        if (!tryPersistTransition(id, status, executionTime, output)) {
+            taskScheduler.schedule(() -> persistTransition(id, status, executionTime, output),
+                    Instant.now().plus(WRITE_RETRY_DELAY));
+            return;
+        }
+        if (scriptStateMachine.current(id) == status)
+            scriptStateMachine.release(id);
+    }
+
+    /**
+     * The row is only updated if its version did not change since it was read. On a conflict the write
+     * is retried, unless a later transition has replaced the status in the meantime and is going to be written instead.
+     *
+     * @return false if all write attempts conflicted.
+     */
+    private boolean tryPersistTransition(Long id, ScriptStatus status, Long executionTime, String output) {
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            Optional<ScriptRevision> revision = scriptRepository.findRevisionById(id);
+            if (revision.isEmpty() || scriptStateMachine.current(id) != status)
+                return true;
+
+            int updated = scriptRepository.updateStatus(id, revision.get().getVersion(), status,
+                    executionTime, output, Instant.now());
+            if (updated == 1) {
+                responseCache.evict(id);
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void updateAndSaveScript(Script script, long executionTime, String output, ScriptStatus status) {
-        script.setExecutionTime(executionTime);
-        script.setOutput(output);
-        script.setStatus(status);
-        scriptRepository.save(script);
+    /**
+     * Throws once the deadline of the current transaction has passed. The JPA query timeout only covers
+     * the execution of a statement, not the time spent reading its result.
+     */
+    private static void checkTransactionTimeout() {
+        Date now = new Date();
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof ResourceHolderSupport holder && holder.hasTimeout() && !holder.getDeadline().after(now)) {
+                holder.setRollbackOnly();
+                throw new TransactionTimedOutException("Transaction timed out: deadline was " + holder.getDeadline());
+            }
+        }
+    }
+
+    private byte[] serialize(ScriptFullInfo scriptFullInfo) {
+        try {
+            return objectMapper.writeValueAsBytes(scriptFullInfo);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private Script getScriptById(Long id){
@@ -0,0 +1,98 @@
+package com.markhmnv.graaljsexecutor.state;
+
+import com.markhmnv.graaljsexecutor.metrics.ScriptStatistics;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.markhmnv.graaljsexecutor.model.enums.ScriptStatus.*;
+
+/**
+ * Authoritative in-memory status of the scripts that are queued or executing.
+ * Every transition is a compare-and-set, so concurrent stop, delete and execution
+ * agree on a single winner without locks. A script is released once its terminal status is persisted.
+ * Every successful transition is reflected in the ScriptStatistics counters.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScriptStateMachine {
+    private static final Map<ScriptStatus, Set<ScriptStatus>> TRANSITIONS = Map.of(
+            QUEUED, EnumSet.of(EXECUTING, STOPPED),
+            EXECUTING, EnumSet.of(COMPLETED, FAILED, STOPPED));
+
+    private final ScriptStatistics scriptStatistics;
+    private final Map<Long, AtomicReference<ScriptStatus>> activeScripts = new ConcurrentHashMap<>();
+
+    /**
+     * Starts tracking a newly created script.
+     */
+    public void register(Long id, ScriptStatus status) {
+        activeScripts.put(id, new AtomicReference<>(status));
+        scriptStatistics.created(status);
+    }
+
+    /**
+     * @return The current status of the script, or null if the script is not tracked.
+     */
+    public ScriptStatus current(Long id) {
+        AtomicReference<ScriptStatus> state = activeScripts.get(id);
+        return state == null ? null : state.get();
+    }
+
+    /**
+     * Atomically moves the script from the expected status to the target status.
+     *
+     * @return true if this call performed the transition.
+     * @throws IllegalArgumentException if the transition is not allowed.
+     */
+    public boolean transition(Long id, ScriptStatus from, ScriptStatus to) {
+        checkAllowed(from, to);
+        AtomicReference<ScriptStatus> state = activeScripts.get(id);
+        if (state == null || !state.compareAndSet(from, to))
+            return false;
+        scriptStatistics.transitioned(from, to);
+        return true;
+    }
+
+    /**
+     * Atomically moves the script from whichever status it is in to the target status, if that transition is allowed.
+     *
+     * @return The status the script was moved from, or null if the transition was not possible.
+     */
+    public ScriptStatus transitionToFromAny(Long id, ScriptStatus to) {
+        AtomicReference<ScriptStatus> state = activeScripts.get(id);
+        if (state == null)
+            return null;
+        while (true) {
+            ScriptStatus from = state.get();
+            if (!isAllowed(from, to))
+                return null;
+            if (state.compareAndSet(from, to)) {
+                scriptStatistics.transitioned(from, to);
+                return from;
+            }
+        }
+    }
+
+    /**
+     * Stops tracking a script whose terminal status has been persisted.
+     */
+    public void release(Long id) {
+        activeScripts.computeIfPresent(id, (key, state) -> state.get().isTerminal() ? null : state);
+    }
+
+    public boolean isAllowed(ScriptStatus from, ScriptStatus to) {
+        return TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    private void checkAllowed(ScriptStatus from, ScriptStatus to) {
+        if (!isAllowed(from, to))
+            throw new IllegalArgumentException("Transition from " + from + " to " + to + " is not allowed");
+    }
+}
@@ -0,0 +1,54 @@
+package com.markhmnv.graaljsexecutor.streaming;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Representations of a script listing. JSON is written as a single array, NDJSON as one object per line,
+ * CBOR and Smile as an indefinite-length array of the same objects in binary form.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ScriptListFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    /**
+     * Picks the format preferred by the Accept header, JSON if the header is missing.
+     *
+     * @param accept The value of the Accept header.
+     * @throws HttpMediaTypeNotAcceptableException if none of the formats is acceptable.
+     */
+    public static ScriptListFormat negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept == null || accept.isBlank())
+            return JSON;
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedType : accepted) {
+            if (acceptedType.getQualityValue() == 0)
+                continue;
+            for (ScriptListFormat format : values()) {
+                if (acceptedType.isCompatibleWith(format.mediaType))
+                    return format;
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(supportedMediaTypes());
+    }
+
+    public static List<MediaType> supportedMediaTypes() {
+        return Arrays.stream(values()).map(ScriptListFormat::getMediaType).toList();
+    }
+}
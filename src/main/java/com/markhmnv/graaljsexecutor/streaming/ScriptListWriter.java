@@ -0,0 +1,73 @@
+package com.markhmnv.graaljsexecutor.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Serializes a listing of scripts row by row as the rows are produced, so memory use does not depend
+ * on the number of scripts. Rows are not flushed one by one, the output is written in buffer sized chunks.
+ */
+@Component
+public class ScriptListWriter {
+    private final Map<ScriptListFormat, ObjectMapper> mappers = new EnumMap<>(ScriptListFormat.class);
+
+    public ScriptListWriter(ObjectMapper objectMapper) {
+        mappers.put(ScriptListFormat.JSON, objectMapper);
+        mappers.put(ScriptListFormat.NDJSON, objectMapper);
+        mappers.put(ScriptListFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+        mappers.put(ScriptListFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * Writes the listing. The enclosing array is only closed if all rows were produced, so a listing cut short
+     * by a failure is recognizable as truncated instead of looking complete.
+     *
+     * @param format  The format to write.
+     * @param out     The stream to write to, closed when the listing is complete or has failed.
+     * @param scripts Produces the rows by passing each of them to the given consumer.
+     */
+    public void write(ScriptListFormat format, OutputStream out, Consumer<Consumer<ScriptGeneralInfo>> scripts) throws IOException {
+        ObjectMapper mapper = mappers.get(format);
+        ObjectWriter writer = mapper.writerFor(ScriptGeneralInfo.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        boolean lineDelimited = format == ScriptListFormat.NDJSON;
+
+        try (JsonGenerator generator = mapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            if (lineDelimited)
+                generator.setRootValueSeparator(null);
+            else
+                generator.writeStartArray();
+
+            try {
+                scripts.accept(script -> {
+                    try {
+                        writer.writeValue(generator, script);
+                        if (lineDelimited)
+                            generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (!lineDelimited)
+                generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import com.markhmnv.graaljsexecutor.scheduling.ActiveSchedule;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs schedules on a real GraalJS engine.
+ */
+public class ActiveScheduleTest {
+    @TempDir
+    Path librariesDir;
+
+    private ScriptRuntime scriptRuntime;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        scriptRuntime = new ScriptRuntime(librariesDir.toString());
+        Files.writeString(scriptRuntime.getLibrariesDir().resolve("math.mjs"), "export function add(a, b) { return a + b; }");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scriptRuntime.destroy();
+    }
+
+    @Test
+    void testImportingScheduleRunsEveryTimeWithRetainedContext() throws Exception {
+        ActiveSchedule schedule = scheduleOf("import { add } from 'math'; console.log(add(1, 2));", true);
+
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("3\n");
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("3\n");
+        schedule.close();
+    }
+
+    @Test
+    void testRetainedContextKeepsStateBetweenRuns() throws Exception {
+        ActiveSchedule schedule = scheduleOf("globalThis.runs = (globalThis.runs || 0) + 1; console.log(runs);", true);
+
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("1\n");
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("2\n");
+        schedule.close();
+    }
+
+    @Test
+    void testFailedRunDiscardsRetainedContext() throws Exception {
+        ActiveSchedule schedule = scheduleOf("""
+                globalThis.runs = (globalThis.runs || 0) + 1;
+                console.log(runs);
+                if (runs === 2) throw new Error('second run fails');
+                """, true);
+
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("1\n");
+        assertThrows(PolyglotException.class, () -> schedule.execute(scriptRuntime));
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("1\n");
+        schedule.close();
+    }
+
+    @Test
+    void testFreshContextForEveryRunWithoutRetainedContext() throws Exception {
+        ActiveSchedule schedule = scheduleOf("globalThis.runs = (globalThis.runs || 0) + 1; console.log(runs);", false);
+
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("1\n");
+        assertThat(schedule.execute(scriptRuntime)).isEqualTo("1\n");
+        schedule.close();
+    }
+
+    private ActiveSchedule scheduleOf(String body, boolean retainContext) {
+        return new ActiveSchedule(1L, scriptRuntime.sourceOf("schedule-1", body), OverlapPolicy.SKIP, retainContext);
+    }
+}
@@ -0,0 +1,242 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.config.TenantProperties;
+import com.markhmnv.graaljsexecutor.exception.InvalidTenantException;
+import com.markhmnv.graaljsexecutor.model.response.TenantStats;
+import com.markhmnv.graaljsexecutor.scheduling.FairShareDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class FairShareDispatcherTest {
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private FairShareDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown(){
+        dispatcher.destroy();
+    }
+
+    @Test
+    void testNoisyTenantDoesNotStarveOthers() throws Exception {
+        dispatcher = new FairShareDispatcher(propertiesWithWorkers(1), taskScheduler);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(12);
+
+        dispatcher.submit("noisy", () -> {
+            await(release);
+            order.add("noisy");
+            done.countDown();
+        });
+        for (int i = 0; i < 10; i++)
+            dispatcher.submit("noisy", () -> {
+                order.add("noisy");
+                done.countDown();
+            });
+        dispatcher.submit("light", () -> {
+            order.add("light");
+            done.countDown();
+        });
+        release.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(order.indexOf("light")).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testMaxConcurrencyPerTenant() throws Exception {
+        TenantProperties properties = propertiesWithWorkers(2);
+        TenantProperties.Limits limits = new TenantProperties.Limits();
+        limits.setMaxConcurrency(1);
+        properties.getOverrides().put("limited", limits);
+        dispatcher = new FairShareDispatcher(properties, taskScheduler);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        dispatcher.submit("limited", () -> await(release));
+        dispatcher.submit("limited", () -> await(release));
+        dispatcher.submit("other", otherRan::countDown);
+
+        assertThat(otherRan.await(10, TimeUnit.SECONDS)).isTrue();
+        TenantStats limited = dispatcher.getTenantStats().stream()
+                .filter(stats -> stats.getTenant().equals("limited"))
+                .findFirst().orElseThrow();
+        assertThat(limited.getRunning()).isEqualTo(1);
+        assertThat(limited.getQueued()).isEqualTo(1);
+        assertThat(limited.getQueueLatency().getCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void testTenantsBeyondCapAreAccountedToDefault() throws Exception {
+        TenantProperties properties = propertiesWithWorkers(2);
+        properties.setMaxTenants(1);
+        dispatcher = new FairShareDispatcher(properties, taskScheduler);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch bRan = new CountDownLatch(1);
+
+        dispatcher.submit("a", () -> await(release));
+        dispatcher.submit("b", bRan::countDown);
+
+        assertThat(bRan.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.getTenantStats()).extracting(TenantStats::getTenant)
+                .containsExactly("a", TenantProperties.DEFAULT_TENANT);
+        release.countDown();
+    }
+
+    @Test
+    void testIdleTenantIsEvictedToMakeRoom() throws Exception {
+        TenantProperties properties = propertiesWithWorkers(1);
+        properties.setMaxTenants(1);
+        properties.setQuotaWindow(Duration.ZERO);
+        dispatcher = new FairShareDispatcher(properties, taskScheduler);
+        CountDownLatch bRan = new CountDownLatch(1);
+
+        dispatcher.submit("a", () -> {});
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dispatcher.getTenantStats().get(0).getCompleted() == 0 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        dispatcher.submit("b", bRan::countDown);
+
+        assertThat(bRan.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatcher.getTenantStats()).extracting(TenantStats::getTenant).containsExactly("b");
+    }
+
+    @Test
+    void testTenantOverCpuQuotaIsThrottled() throws Exception {
+        TenantProperties properties = propertiesWithCpuQuota("greedy", Duration.ofHours(1));
+        dispatcher = new FairShareDispatcher(properties, taskScheduler);
+        CountDownLatch greedyRan = new CountDownLatch(2);
+        CountDownLatch otherRan = new CountDownLatch(1);
+
+        dispatcher.submit("greedy", () -> {
+            burnCpu(Duration.ofMillis(20));
+            greedyRan.countDown();
+        });
+        dispatcher.submit("greedy", greedyRan::countDown);
+        dispatcher.submit("other", otherRan::countDown);
+
+        assertThat(otherRan.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(greedyRan.getCount()).isEqualTo(1);
+        TenantStats greedy = statsOf("greedy");
+        assertThat(greedy.getQueued()).isEqualTo(1);
+        assertThat(greedy.getCpuTimeInWindow()).isGreaterThanOrEqualTo(greedy.getCpuQuota());
+        verify(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testThrottledTenantResumesAfterQuotaWindow() throws Exception {
+        Duration quotaWindow = Duration.ofMillis(300);
+        dispatcher = new FairShareDispatcher(propertiesWithCpuQuota("greedy", quotaWindow), taskScheduler);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        dispatcher.submit("greedy", () -> burnCpu(Duration.ofMillis(20)));
+        dispatcher.submit("greedy", secondRan::countDown);
+
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Instant> refreshAt = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler, timeout(10000)).schedule(refresh.capture(), refreshAt.capture());
+        assertThat(refreshAt.getValue()).isBefore(Instant.now().plus(quotaWindow));
+        assertThat(secondRan.await(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), refreshAt.getValue()).toMillis()) + 10);
+        refresh.getValue().run();
+
+        assertThat(secondRan.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testTenantWithDoubleWeightGetsTwiceTheStarts() throws Exception {
+        TenantProperties properties = propertiesWithWorkers(1);
+        TenantProperties.Limits heavy = new TenantProperties.Limits();
+        heavy.setWeight(2);
+        properties.getOverrides().put("heavy", heavy);
+        dispatcher = new FairShareDispatcher(properties, taskScheduler);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(60);
+
+        dispatcher.submit("gate", () -> await(release));
+        for (int i = 0; i < 30; i++) {
+            dispatcher.submit("heavy", () -> {
+                order.add("heavy");
+                done.countDown();
+            });
+            dispatcher.submit("light", () -> {
+                order.add("light");
+                done.countDown();
+            });
+        }
+        release.countDown();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        // While both tenants have pending scripts, the heavy one starts two for every one of the light one
+        assertThat(order.subList(0, 30)).filteredOn("heavy"::equals).hasSizeBetween(19, 21);
+    }
+
+    @Test
+    void testInvalidTenantIdIsRejected() {
+        dispatcher = new FairShareDispatcher(propertiesWithWorkers(1), taskScheduler);
+
+        dispatcher.validateTenant("team-a_1.eu");
+        assertThrows(InvalidTenantException.class, () -> dispatcher.validateTenant("a".repeat(65)));
+        assertThrows(InvalidTenantException.class, () -> dispatcher.validateTenant("team a\r\n"));
+        assertThrows(InvalidTenantException.class, () -> dispatcher.validateTenant(""));
+    }
+
+    private static TenantProperties propertiesWithWorkers(int workers) {
+        TenantProperties properties = new TenantProperties();
+        properties.setWorkers(workers);
+        return properties;
+    }
+
+    private static TenantProperties propertiesWithCpuQuota(String tenant, Duration quotaWindow) {
+        TenantProperties properties = propertiesWithWorkers(1);
+        properties.setQuotaWindow(quotaWindow);
+        TenantProperties.Limits limits = new TenantProperties.Limits();
+        limits.setCpuQuota(Duration.ofMillis(1));
+        properties.getOverrides().put(tenant, limits);
+        return properties;
+    }
+
+    private TenantStats statsOf(String tenant) {
+        return dispatcher.getTenantStats().stream()
+                .filter(stats -> stats.getTenant().equals(tenant))
+                .findFirst().orElseThrow();
+    }
+
+    private static void burnCpu(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end)
+            Thread.onSpinWait();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
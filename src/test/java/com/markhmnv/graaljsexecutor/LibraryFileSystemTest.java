@@ -0,0 +1,60 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.engine.LibraryFileSystem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AccessMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LibraryFileSystemTest {
+    @TempDir
+    Path librariesDir;
+
+    private LibraryFileSystem fileSystem;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        librariesDir = librariesDir.toRealPath();
+        Files.writeString(librariesDir.resolve("math.mjs"), "export const two = 2;");
+        fileSystem = new LibraryFileSystem(librariesDir);
+    }
+
+    @Test
+    void testBareSpecifierResolvesToLibrary() throws Exception {
+        Path path = fileSystem.parsePath("math");
+
+        assertThat(fileSystem.toRealPath(path)).isEqualTo(librariesDir.resolve("math.mjs"));
+    }
+
+    @Test
+    void testRelativeImportBetweenLibrariesResolvesToLibrary() throws Exception {
+        Path sibling = librariesDir.resolve("dates.mjs").resolveSibling("math");
+
+        assertThat(fileSystem.toRealPath(sibling)).isEqualTo(librariesDir.resolve("math.mjs"));
+    }
+
+    @Test
+    void testFilesOutsideStoreAreNotAccessible() {
+        Path outside = fileSystem.parsePath("../outside.mjs");
+
+        assertThrows(AccessDeniedException.class, () -> fileSystem.toRealPath(outside));
+        assertThrows(AccessDeniedException.class, () -> fileSystem.checkAccess(fileSystem.parsePath("/etc/passwd"), Set.of(AccessMode.READ)));
+    }
+
+    @Test
+    void testStoreIsReadOnly() {
+        Path library = fileSystem.parsePath("math");
+
+        assertThrows(AccessDeniedException.class, () -> fileSystem.delete(library));
+        assertThrows(AccessDeniedException.class, () -> fileSystem.newByteChannel(library, Set.of(StandardOpenOption.WRITE)));
+    }
+}
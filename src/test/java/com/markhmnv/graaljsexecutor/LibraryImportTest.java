@@ -0,0 +1,62 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.service.LibraryService;
+import org.graalvm.polyglot.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evaluates scripts importing stored libraries on a real GraalJS engine.
+ */
+public class LibraryImportTest {
+    @TempDir
+    Path librariesDir;
+
+    private ScriptRuntime scriptRuntime;
+    private LibraryService libraryService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        scriptRuntime = new ScriptRuntime(librariesDir.toString());
+        libraryService = new LibraryService(scriptRuntime);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scriptRuntime.destroy();
+    }
+
+    @Test
+    void testScriptImportsStoredLibrary() {
+        libraryService.saveLibrary("math", "export function add(a, b) { return a + b; }");
+
+        assertThat(evaluate("import { add } from 'math'; console.log(add(1, 2));")).isEqualTo("3\n");
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void testSavingLibraryDoesNotRunItsTopLevelCode() {
+        libraryService.saveLibrary("spin", "while (true) {} export const never = 1;");
+
+        assertThat(libraryService.getLibraries()).hasSize(1);
+    }
+
+    private String evaluate(String body) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (Context context = scriptRuntime.contextWith(outputStream)) {
+            context.eval(scriptRuntime.sourceOf("main", body));
+        }
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
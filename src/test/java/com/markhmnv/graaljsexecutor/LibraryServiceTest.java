@@ -0,0 +1,90 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.exception.InvalidLibraryException;
+import com.markhmnv.graaljsexecutor.exception.LibraryNotFoundException;
+import com.markhmnv.graaljsexecutor.model.response.LibraryInfo;
+import com.markhmnv.graaljsexecutor.service.LibraryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LibraryServiceTest {
+    @Mock
+    private ScriptRuntime scriptRuntime;
+
+    @InjectMocks
+    private LibraryService libraryService;
+
+    @TempDir
+    Path librariesDir;
+
+    private final String library = "export function double(x) { return x * 2; }";
+
+    @BeforeEach
+    public void setUp(){
+        lenient().when(scriptRuntime.getLibrariesDir()).thenReturn(librariesDir);
+    }
+
+    @Test
+    void testSaveLibrary() throws Exception {
+        LibraryInfo saved = libraryService.saveLibrary("math", library);
+
+        assertThat(saved.getName()).isEqualTo("math");
+        assertThat(saved.getSize()).isEqualTo(library.length());
+        assertThat(Files.readString(librariesDir.resolve("math.mjs"))).isEqualTo(library);
+        verify(scriptRuntime, times(1)).checkLibrarySyntax("math", library);
+        verify(scriptRuntime, times(1)).preloadLibrary("math");
+    }
+
+    @Test
+    void testSaveLibraryWithInvalidName() {
+        assertThrows(InvalidLibraryException.class, () -> libraryService.saveLibrary("../math", library));
+        verify(scriptRuntime, never()).checkLibrarySyntax(anyString(), anyString());
+    }
+
+    @Test
+    void testGetLibraries() {
+        libraryService.saveLibrary("math", library);
+        libraryService.saveLibrary("dates", library);
+
+        List<LibraryInfo> libraries = libraryService.getLibraries();
+
+        assertThat(libraries).extracting(LibraryInfo::getName).containsExactly("dates", "math");
+    }
+
+    @Test
+    void testGetLibrary() {
+        libraryService.saveLibrary("math", library);
+
+        assertThat(libraryService.getLibrary("math")).isEqualTo(library);
+    }
+
+    @Test
+    void testDeleteLibrary() {
+        libraryService.saveLibrary("math", library);
+
+        libraryService.deleteLibrary("math");
+
+        assertThat(Files.exists(librariesDir.resolve("math.mjs"))).isFalse();
+    }
+
+    @Test
+    void testLibraryNotFound() {
+        assertThrows(LibraryNotFoundException.class, () -> libraryService.getLibrary("math"));
+        assertThrows(LibraryNotFoundException.class, () -> libraryService.deleteLibrary("math"));
+    }
+}
@@ -0,0 +1,226 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the script API over HTTP with a weighted mix of evaluate, get and cancel requests.
+ * <p>
+ * In closed-loop mode every worker sends its next request as soon as the previous one is answered,
+ * which measures the sustainable throughput. In open-loop mode requests are started at a fixed rate
+ * regardless of how fast they are answered, and latency is measured from the intended start,
+ * so a stalled server shows up in the tail latency instead of silently lowering the request rate.
+ */
+public class LoadGenerator {
+    private static final String SCRIPTS_PATH = "/api/v1/scripts";
+    private static final int KNOWN_IDS = 4096;
+
+    public enum Mode { CLOSED, OPEN }
+
+    public enum Operation { EVALUATE, GET, CANCEL }
+
+    /**
+     * @param mix            Relative weights of the operations.
+     * @param scheduledRatio Share of evaluations scheduled a second ahead, so there are queued scripts to cancel.
+     */
+    public record Settings(Mode mode, int concurrency, int rate, Duration duration, Duration warmup,
+                           Map<Operation, Integer> mix, String script, double scheduledRatio) {
+
+        /**
+         * Reads the settings from {@code load.*} system properties, e.g. {@code -Dload.mode=open -Dload.rate=500}.
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Mode.valueOf(System.getProperty("load.mode", "closed").toUpperCase(Locale.ROOT)),
+                    Integer.getInteger("load.concurrency", 16),
+                    Integer.getInteger("load.rate", 200),
+                    Duration.parse(System.getProperty("load.duration", "PT30S")),
+                    Duration.parse(System.getProperty("load.warmup", "PT5S")),
+                    parseMix(System.getProperty("load.mix", "evaluate:60,get:30,cancel:10")),
+                    System.getProperty("load.script", "let x = 0; for (let i = 0; i < 1000; i++) { x += i; } console.log(x);"),
+                    Double.parseDouble(System.getProperty("load.scheduledRatio", "0.2")));
+        }
+
+        public String mixDescription() {
+            return mix.entrySet().stream()
+                    .map(entry -> entry.getKey().name().toLowerCase(Locale.ROOT) + ":" + entry.getValue())
+                    .collect(Collectors.joining(","));
+        }
+
+        private static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : mix.split(",")) {
+                String[] weight = part.trim().split(":");
+                weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+            }
+            if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0)
+                throw new IllegalArgumentException("The mix must contain a positive weight: " + mix);
+            return weights;
+        }
+    }
+
+    private final String baseUrl;
+    private final Settings settings;
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLongArray knownIds = new AtomicLongArray(KNOWN_IDS);
+    private final AtomicLong evaluated = new AtomicLong();
+
+    public LoadGenerator(String baseUrl, Settings settings) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(2, settings.concurrency() / 4));
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    /**
+     * Runs the warmup and the measured phase.
+     *
+     * @return The results of the measured phase.
+     */
+    public LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long deadline = measureFrom + settings.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            if (settings.mode() == Mode.CLOSED) {
+                for (int worker = 0; worker < settings.concurrency(); worker++)
+                    workers.execute(() -> {
+                        long intendedStart;
+                        while ((intendedStart = System.nanoTime()) < deadline)
+                            perform(report, intendedStart, measureFrom);
+                    });
+            } else {
+                long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, settings.rate());
+                for (long intendedStart = start; intendedStart < deadline; intendedStart += interval) {
+                    long delay;
+                    while ((delay = intendedStart - System.nanoTime()) > 0)
+                        LockSupport.parkNanos(delay);
+                    workers.execute(new ScheduledRequest(report, intendedStart, measureFrom));
+                }
+            }
+            workers.shutdown();
+            workers.awaitTermination(settings.duration().toSeconds() + 60, TimeUnit.SECONDS);
+        } finally {
+            // Requests that were never sent count as errors with their latency at the cutoff, so an overloaded
+            // server does not lose its slowest requests from the report. In-flight requests record themselves when interrupted.
+            List<Runnable> unsent = workers.shutdownNow();
+            long cutoff = System.nanoTime();
+            for (Runnable request : unsent)
+                if (request instanceof ScheduledRequest scheduled && scheduled.intendedStart >= measureFrom)
+                    report.recordCutOff(nextOperation(), cutoff - scheduled.intendedStart);
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+            // HttpClient never shuts down an executor it was given
+            clientExecutor.shutdownNow();
+        }
+        return report;
+    }
+
+    private void perform(LoadReport report, long intendedStart, long measureFrom) {
+        Operation operation = nextOperation();
+        long id = randomKnownId();
+        if (id == 0)
+            operation = Operation.EVALUATE;
+        int statusCode;
+        try {
+            statusCode = send(operation, id);
+        } catch (IOException e) {
+            statusCode = 0;
+        } catch (InterruptedException e) {
+            if (intendedStart >= measureFrom)
+                report.recordCutOff(operation, System.nanoTime() - intendedStart);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (intendedStart >= measureFrom)
+            report.record(operation, System.nanoTime() - intendedStart, statusCode);
+    }
+
+    /**
+     * An open-loop request, identifiable among the tasks that were still queued at the cutoff.
+     */
+    private final class ScheduledRequest implements Runnable {
+        private final LoadReport report;
+        private final long intendedStart;
+        private final long measureFrom;
+
+        private ScheduledRequest(LoadReport report, long intendedStart, long measureFrom) {
+            this.report = report;
+            this.intendedStart = intendedStart;
+            this.measureFrom = measureFrom;
+        }
+
+        @Override
+        public void run() {
+            perform(report, intendedStart, measureFrom);
+        }
+    }
+
+    private int send(Operation operation, long id) throws IOException, InterruptedException {
+        if (operation == Operation.EVALUATE) {
+            String query = "";
+            if (ThreadLocalRandom.current().nextDouble() < settings.scheduledRatio())
+                query = "?executeAt=" + LocalDateTime.now().plusSeconds(1);
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + SCRIPTS_PATH + "/evaluate" + query))
+                            .POST(HttpRequest.BodyPublishers.ofString(settings.script()))
+                            .header("Content-Type", "text/plain")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200)
+                remember(objectMapper.readTree(response.body()).path("id").asLong());
+            return response.statusCode();
+        }
+
+        HttpRequest.Builder request = operation == Operation.GET
+                ? HttpRequest.newBuilder(URI.create(baseUrl + SCRIPTS_PATH + "/" + id)).GET()
+                : HttpRequest.newBuilder(URI.create(baseUrl + SCRIPTS_PATH + "/" + id + "/cancel"))
+                        .POST(HttpRequest.BodyPublishers.noBody());
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Operation nextOperation() {
+        int total = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : settings.mix().entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0)
+                return weight.getKey();
+        }
+        return Operation.EVALUATE;
+    }
+
+    private void remember(long id) {
+        knownIds.set((int) (evaluated.getAndIncrement() % KNOWN_IDS), id);
+    }
+
+    /**
+     * @return One of the recently evaluated scripts, or 0 if nothing was evaluated yet.
+     */
+    private long randomKnownId() {
+        long count = Math.min(evaluated.get(), KNOWN_IDS);
+        return count == 0 ? 0 : knownIds.get(ThreadLocalRandom.current().nextInt((int) count));
+    }
+}
@@ -0,0 +1,131 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency, throughput and error counts of a load test run, per operation.
+ * Rendered as a fixed layout plain text report, so reports of different builds can be diffed line by line.
+ */
+public class LoadReport {
+    private static final double MICROS_PER_MILLISECOND = 1000;
+
+    private final Map<LoadGenerator.Operation, OperationStats> operations = new EnumMap<>(LoadGenerator.Operation.class);
+    private final AtomicLong cutOff = new AtomicLong();
+
+    public LoadReport() {
+        for (LoadGenerator.Operation operation : LoadGenerator.Operation.values())
+            operations.put(operation, new OperationStats());
+    }
+
+    /**
+     * @param operation The operation that was performed.
+     * @param latencyNanos The latency, measured from the intended start of the request.
+     * @param statusCode The HTTP status of the response, or 0 if no response was received.
+     */
+    public void record(LoadGenerator.Operation operation, long latencyNanos, int statusCode) {
+        OperationStats stats = operations.get(operation);
+        stats.latency.record(latencyNanos / 1000);
+        if (statusCode == 0 || statusCode >= 500)
+            stats.errors.incrementAndGet();
+        else if (statusCode >= 400)
+            stats.rejected.incrementAndGet();
+    }
+
+    /**
+     * Records a request that was still queued or in flight when the run was cut off, as an error
+     * with its latency up to the cutoff.
+     */
+    public void recordCutOff(LoadGenerator.Operation operation, long latencyNanos) {
+        record(operation, latencyNanos, 0);
+        cutOff.incrementAndGet();
+    }
+
+    public long getRequests() {
+        return operations.values().stream().mapToLong(stats -> stats.latency.getTotalCount()).sum();
+    }
+
+    public long getErrors() {
+        return operations.values().stream().mapToLong(stats -> stats.errors.get()).sum();
+    }
+
+    /**
+     * @return The number of requests that had not been answered when the run was cut off.
+     */
+    public long getCutOff() {
+        return cutOff.get();
+    }
+
+    public double getErrorRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0 : (double) getErrors() / requests;
+    }
+
+    /**
+     * Renders the report. Rejected requests are 4xx answers, e.g. cancelling a script that already finished,
+     * errors are 5xx answers and requests without a response, including the ones cut off at the end of the run.
+     *
+     * @param settings The settings the run was performed with.
+     * @param measured The time the results were recorded in, warmup excluded.
+     */
+    public String render(LoadGenerator.Settings settings, Duration measured) {
+        StringBuilder report = new StringBuilder();
+        report.append("# GraalJSExecutor load test\n");
+        report.append("mode=").append(settings.mode().name().toLowerCase(Locale.ROOT)).append('\n');
+        report.append("concurrency=").append(settings.concurrency()).append('\n');
+        if (settings.mode() == LoadGenerator.Mode.OPEN)
+            report.append("rate=").append(settings.rate()).append('\n');
+        report.append("duration=").append(settings.duration()).append('\n');
+        report.append("warmup=").append(settings.warmup()).append('\n');
+        report.append("mix=").append(settings.mixDescription()).append('\n');
+        report.append("cut_off=").append(cutOff.get()).append('\n');
+        report.append('\n');
+        report.append(String.format(Locale.ROOT, "%-10s %10s %12s %9s %9s %10s %10s %10s %10s%n",
+                "operation", "requests", "throughput", "rejected%", "errors%", "p50_ms", "p99_ms", "p999_ms", "max_ms"));
+
+        double seconds = Math.max(measured.toMillis(), 1) / 1000.0;
+        LatencyHistogram total = new LatencyHistogram();
+        long totalRejected = 0;
+        long totalErrors = 0;
+        for (Map.Entry<LoadGenerator.Operation, OperationStats> entry : operations.entrySet()) {
+            OperationStats stats = entry.getValue();
+            total.add(stats.latency);
+            totalRejected += stats.rejected.get();
+            totalErrors += stats.errors.get();
+            appendRow(report, entry.getKey().name().toLowerCase(Locale.ROOT), stats.latency,
+                    stats.rejected.get(), stats.errors.get(), seconds);
+        }
+        appendRow(report, "total", total, totalRejected, totalErrors, seconds);
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, LatencyHistogram latency,
+                                  long rejected, long errors, double seconds) {
+        long requests = latency.getTotalCount();
+        report.append(String.format(Locale.ROOT, "%-10s %10d %12.1f %9.2f %9.2f %10.2f %10.2f %10.2f %10.2f%n",
+                name,
+                requests,
+                requests / seconds,
+                percentOf(rejected, requests),
+                percentOf(errors, requests),
+                latency.getValueAtPercentile(50) / MICROS_PER_MILLISECOND,
+                latency.getValueAtPercentile(99) / MICROS_PER_MILLISECOND,
+                latency.getValueAtPercentile(99.9) / MICROS_PER_MILLISECOND,
+                latency.getMaxValue() / MICROS_PER_MILLISECOND));
+    }
+
+    private static double percentOf(long count, long requests) {
+        return requests == 0 ? 0 : 100.0 * count / requests;
+    }
+
+    private static class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,43 @@
+package com.markhmnv.graaljsexecutor;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application on an embedded server and runs the LoadGenerator against it.
+ * The report is printed and written to {@code load.report} (default {@code target/load-test/report.txt}).
+ * Excluded from the regular build, run it with {@code ./mvnw test -Pload-test}, settings are passed
+ * as system properties, e.g. {@code -Dload.mode=open -Dload.rate=500 -Dload.mix=evaluate:80,get:20}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.root=WARN"})
+public class LoadTest {
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testLoad() throws Exception {
+        LoadGenerator.Settings settings = LoadGenerator.Settings.fromSystemProperties();
+        LoadReport report = new LoadGenerator("http://localhost:" + port, settings).run();
+
+        String rendered = report.render(settings, settings.duration());
+        System.out.println(rendered);
+        Path reportFile = Path.of(System.getProperty("load.report", "target/load-test/report.txt"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, rendered, StandardCharsets.UTF_8);
+
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+        assertThat(report.getCutOff()).as("requests unanswered when the run was cut off").isZero();
+        assertThat(report.getRequests()).isPositive();
+        assertThat(report.getErrorRate()).isLessThanOrEqualTo(maxErrorRate);
+    }
+}
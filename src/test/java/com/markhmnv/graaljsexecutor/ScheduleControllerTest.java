@@ -0,0 +1,105 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.controller.ScheduleController;
+import com.markhmnv.graaljsexecutor.exception.InvalidScheduleException;
+import com.markhmnv.graaljsexecutor.exception.ScheduleNotFoundException;
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleRunInfo;
+import com.markhmnv.graaljsexecutor.service.ScheduleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureWebMvc
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(ScheduleController.class)
+public class ScheduleControllerTest {
+    @MockBean
+    private ScheduleService scheduleService;
+    @Autowired
+    MockMvc mockMvc;
+
+    private ScheduleInfo scheduleInfo;
+
+    @BeforeEach
+    public void setUp(){
+        scheduleInfo = ScheduleInfo.builder().id(1L).body("console.log('tick');").fixedRate(60000L)
+                .overlapPolicy(OverlapPolicy.SKIP).catchUpPolicy(CatchUpPolicy.RUN_ONCE).retainContext(true).build();
+    }
+
+    @Test
+    public void testCreateSchedule() throws Exception {
+        given(scheduleService.createSchedule(scheduleInfo.getBody(), null, 60000L, null,
+                OverlapPolicy.SKIP, CatchUpPolicy.RUN_ONCE, true, "acme")).willReturn(scheduleInfo);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/schedules")
+                        .param("fixedRate", "60000")
+                        .param("catchUpPolicy", CatchUpPolicy.RUN_ONCE.name())
+                        .param("retainContext", "true")
+                        .header("X-Tenant-Id", "acme")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleInfo.getBody()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(scheduleInfo.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.fixedRate").value(scheduleInfo.getFixedRate()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.retainContext").value(true));
+    }
+
+    @Test
+    public void testCreateInvalidSchedule() throws Exception {
+        given(scheduleService.createSchedule(anyString(), any(), any(), any(), any(), any(), anyBoolean(), anyString()))
+                .willThrow(new InvalidScheduleException("Exactly one of cron and fixedRate must be provided"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/schedules")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scheduleInfo.getBody()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetScheduleRuns() throws Exception {
+        ScheduleRunInfo run = ScheduleRunInfo.builder().id(7L).scheduleId(scheduleInfo.getId())
+                .status(ScriptStatus.COMPLETED).startedAt(Instant.now()).output("tick\n").build();
+        given(scheduleService.getScheduleRuns(scheduleInfo.getId())).willReturn(List.of(run));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/schedules/{id}/runs", scheduleInfo.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].scheduleId").value(scheduleInfo.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].output").value(run.getOutput()));
+    }
+
+    @Test
+    public void testGetScheduleNotFound() throws Exception {
+        given(scheduleService.getSchedule(anyLong())).willThrow(new ScheduleNotFoundException());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/schedules/{id}", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testDeleteSchedule() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/schedules/{id}", scheduleInfo.getId()))
+                .andExpect(status().isNoContent());
+
+        verify(scheduleService, times(1)).deleteSchedule(scheduleInfo.getId());
+    }
+}
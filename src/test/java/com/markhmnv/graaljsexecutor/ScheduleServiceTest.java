@@ -0,0 +1,173 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.engine.ScriptRuntime;
+import com.markhmnv.graaljsexecutor.exception.InvalidScheduleException;
+import com.markhmnv.graaljsexecutor.exception.ScheduleNotFoundException;
+import com.markhmnv.graaljsexecutor.mapper.ScheduleMapper;
+import com.markhmnv.graaljsexecutor.model.entity.Schedule;
+import com.markhmnv.graaljsexecutor.model.entity.ScheduleRun;
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.model.enums.OverlapPolicy;
+import com.markhmnv.graaljsexecutor.model.response.ScheduleInfo;
+import com.markhmnv.graaljsexecutor.repository.ScheduleRepository;
+import com.markhmnv.graaljsexecutor.repository.ScheduleRunRepository;
+import com.markhmnv.graaljsexecutor.scheduling.FairShareDispatcher;
+import com.markhmnv.graaljsexecutor.service.ScheduleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ScheduleServiceTest {
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private ScheduleRunRepository scheduleRunRepository;
+    @Mock
+    private ScheduleMapper scheduleMapper;
+    @Mock
+    private TaskScheduler taskScheduler;
+    @Mock
+    private ScriptRuntime scriptRuntime;
+    @Mock
+    private FairShareDispatcher dispatcher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ScheduleService scheduleService;
+
+    private Schedule schedule;
+    private ScheduleInfo scheduleInfo;
+
+    @BeforeEach
+    public void setUp(){
+        schedule = Schedule.builder().id(1L).body("console.log('tick');").cron("0 * * * * *")
+                .overlapPolicy(OverlapPolicy.SKIP).catchUpPolicy(CatchUpPolicy.SKIP).build();
+        scheduleInfo = ScheduleInfo.builder().id(schedule.getId()).body(schedule.getBody()).cron(schedule.getCron())
+                .overlapPolicy(schedule.getOverlapPolicy()).catchUpPolicy(schedule.getCatchUpPolicy()).build();
+    }
+
+    @Test
+    void testCreateCronSchedule() {
+        given(scheduleRepository.save(any(Schedule.class))).willReturn(schedule);
+        when(scheduleMapper.toScheduleInfo(schedule)).thenReturn(scheduleInfo);
+        when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class))).thenAnswer(invocation -> mock(ScheduledFuture.class));
+
+        ScheduleInfo created = scheduleService.createSchedule(schedule.getBody(), schedule.getCron(), null, null,
+                OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default");
+
+        assertThat(created).isEqualTo(scheduleInfo);
+        verify(scriptRuntime, times(1)).sourceOf(anyString(), eq(schedule.getBody()));
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Trigger.class));
+    }
+
+    @Test
+    void testCreateFixedRateSchedule() {
+        given(scheduleRepository.save(any(Schedule.class))).willReturn(schedule);
+        when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class))).thenAnswer(invocation -> mock(ScheduledFuture.class));
+
+        scheduleService.createSchedule(schedule.getBody(), null, 60000L, null,
+                OverlapPolicy.ALLOW, CatchUpPolicy.RUN_ONCE, true, "default");
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Trigger.class));
+    }
+
+    @Test
+    void testCreateScheduleWithInvalidCron() {
+        assertThrows(InvalidScheduleException.class, () -> scheduleService.createSchedule(schedule.getBody(),
+                "every minute", null, null, OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default"));
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    void testCreateScheduleWithInvalidTimezone() {
+        assertThrows(InvalidScheduleException.class, () -> scheduleService.createSchedule(schedule.getBody(),
+                schedule.getCron(), null, "Mars/Olympus", OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default"));
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    void testCreateScheduleWithCronAndFixedRate() {
+        assertThrows(InvalidScheduleException.class, () -> scheduleService.createSchedule(schedule.getBody(),
+                schedule.getCron(), 60000L, null, OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default"));
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    void testCreateScheduleWithoutCronAndFixedRate() {
+        assertThrows(InvalidScheduleException.class, () -> scheduleService.createSchedule(schedule.getBody(),
+                null, null, null, OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default"));
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    void testCreateScheduleRunningAllMissedRunsWithoutOverlap() {
+        assertThrows(InvalidScheduleException.class, () -> scheduleService.createSchedule(schedule.getBody(),
+                schedule.getCron(), null, null, OverlapPolicy.SKIP, CatchUpPolicy.RUN_ALL, false, "default"));
+        verify(scheduleRepository, never()).save(any(Schedule.class));
+    }
+
+    @Test
+    void testDeleteSchedule() {
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        given(scheduleRepository.save(any(Schedule.class))).willReturn(schedule);
+        when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class))).thenAnswer(invocation -> future);
+        scheduleService.createSchedule(schedule.getBody(), schedule.getCron(), null, null,
+                OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default");
+        given(scheduleRepository.findForUpdateById(schedule.getId())).willReturn(Optional.of(schedule));
+
+        scheduleService.deleteSchedule(schedule.getId());
+
+        verify(future, times(1)).cancel(false);
+        verify(scheduleRunRepository, times(1)).deleteByScheduleId(schedule.getId());
+        verify(scheduleRepository, times(1)).delete(schedule);
+    }
+
+    @Test
+    void testGetScheduleNotFound() {
+        given(scheduleRepository.findById(anyLong())).willReturn(Optional.empty());
+
+        assertThrows(ScheduleNotFoundException.class, () -> scheduleService.getSchedule(schedule.getId()));
+        assertThrows(ScheduleNotFoundException.class, () -> scheduleService.getScheduleRuns(schedule.getId()));
+    }
+
+    @Test
+    void testRunOfDeletedScheduleIsNotRecorded() {
+        ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Runnable> run = ArgumentCaptor.forClass(Runnable.class);
+        given(scheduleRepository.save(any(Schedule.class))).willReturn(schedule);
+        scheduleService.createSchedule(schedule.getBody(), schedule.getCron(), null, null,
+                OverlapPolicy.SKIP, CatchUpPolicy.SKIP, false, "default");
+        verify(taskScheduler).schedule(fire.capture(), any(Trigger.class));
+        fire.getValue().run();
+        verify(dispatcher).submit(eq("default"), run.capture());
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+        given(scheduleRepository.findForUpdateById(schedule.getId())).willReturn(Optional.empty());
+
+        run.getValue().run();
+
+        verify(scheduleRunRepository, never()).save(any(ScheduleRun.class));
+    }
+}
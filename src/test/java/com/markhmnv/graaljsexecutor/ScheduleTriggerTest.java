@@ -0,0 +1,66 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.model.enums.CatchUpPolicy;
+import com.markhmnv.graaljsexecutor.scheduling.ScheduleTrigger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScheduleTriggerTest {
+    private final Instant now = Instant.parse("2023-07-01T10:00:00Z");
+    private final Instant lastRun = now.minus(Duration.ofMinutes(10)).plusSeconds(30);
+    private PeriodicTrigger everyMinute;
+    private SimpleTriggerContext triggerContext;
+
+    @BeforeEach
+    public void setUp(){
+        everyMinute = new PeriodicTrigger(Duration.ofMinutes(1));
+        everyMinute.setFixedRate(true);
+        triggerContext = new SimpleTriggerContext(Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testRunAllReturnsFirstMissedRun() {
+        ScheduleTrigger trigger = new ScheduleTrigger(everyMinute, CatchUpPolicy.RUN_ALL, lastRun);
+
+        assertThat(trigger.nextExecution(triggerContext)).isEqualTo(lastRun.plus(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void testRunOnceRunsImmediately() {
+        ScheduleTrigger trigger = new ScheduleTrigger(everyMinute, CatchUpPolicy.RUN_ONCE, lastRun);
+
+        assertThat(trigger.nextExecution(triggerContext)).isEqualTo(now);
+    }
+
+    @Test
+    void testSkipWaitsForNextRegularRun() {
+        ScheduleTrigger trigger = new ScheduleTrigger(everyMinute, CatchUpPolicy.SKIP, lastRun);
+
+        assertThat(trigger.nextExecution(triggerContext)).isEqualTo(now.plusSeconds(30));
+    }
+
+    @Test
+    void testNewScheduleStartsImmediately() {
+        ScheduleTrigger trigger = new ScheduleTrigger(everyMinute, CatchUpPolicy.SKIP, null);
+
+        assertThat(trigger.nextExecution(triggerContext)).isEqualTo(now);
+    }
+
+    @Test
+    void testSkipAfterLongDowntimeJumpsToNextRegularRun() {
+        ScheduleTrigger trigger = new ScheduleTrigger(new CronTrigger("* * * * * *", ZoneOffset.UTC),
+                CatchUpPolicy.SKIP, now.minus(Duration.ofDays(365)));
+
+        assertThat(trigger.nextExecution(triggerContext)).isEqualTo(now.plusSeconds(1));
+    }
+}
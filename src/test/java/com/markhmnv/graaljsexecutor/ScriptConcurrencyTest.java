@@ -0,0 +1,146 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.exception.IllegalDeletionException;
+import com.markhmnv.graaljsexecutor.exception.ScriptExecutionStopException;
+import com.markhmnv.graaljsexecutor.model.entity.Script;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.repository.ScriptRepository;
+import com.markhmnv.graaljsexecutor.service.ScriptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers evaluate, stop and delete from many threads and checks that every acknowledged
+ * stop and delete is reflected in the database, i.e. that no transition was lost or overwritten.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ScriptConcurrencyTest {
+    private static final String SHORT_SCRIPT = "let x = 0; for (let i = 0; i < 20000; i++) { x += i; } console.log(x);";
+    private static final String ENDLESS_SCRIPT = "while (true) {}";
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 40;
+
+    @Autowired
+    private ScriptService scriptService;
+    @Autowired
+    private ScriptRepository scriptRepository;
+
+    private enum Expected { COMPLETED, STOPPED, DELETED }
+
+    @Test
+    void testConcurrentEvaluateStopDeleteLosesNoUpdates() throws Exception {
+        Map<Long, Expected> expectations = new ConcurrentHashMap<>();
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            results.add(clients.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    LocalDateTime executeAt = random.nextBoolean() ? null : LocalDateTime.now().plusNanos(random.nextInt(5_000_000));
+                    long id = scriptService.evaluateScript(SHORT_SCRIPT, executeAt, null, "default").getId();
+                    switch (random.nextInt(3)) {
+                        case 0 -> expectations.put(id, Expected.COMPLETED);
+                        // A stop is refused only once the script has finished on its own
+                        case 1 -> expectations.put(id, tryStop(id) ? Expected.STOPPED : Expected.COMPLETED);
+                        default -> {
+                            Expected stopped = tryStop(id) ? Expected.STOPPED : Expected.COMPLETED;
+                            expectations.put(id, tryDelete(id) ? Expected.DELETED : stopped);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results)
+            result.get(60, TimeUnit.SECONDS);
+        clients.shutdown();
+
+        awaitNoActiveScripts(expectations.keySet());
+
+        for (Map.Entry<Long, Expected> expectation : expectations.entrySet()) {
+            Optional<Script> script = scriptRepository.findById(expectation.getKey());
+            switch (expectation.getValue()) {
+                case DELETED -> assertThat(script).as("deleted script %d", expectation.getKey()).isEmpty();
+                case STOPPED -> assertThat(script.map(Script::getStatus)).as("stopped script %d", expectation.getKey())
+                        .contains(ScriptStatus.STOPPED);
+                case COMPLETED -> assertThat(script.map(Script::getStatus)).as("completed script %d", expectation.getKey())
+                        .contains(ScriptStatus.COMPLETED);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentStopOfRunningScriptHasSingleWinner() throws Exception {
+        long id = scriptService.evaluateScript(ENDLESS_SCRIPT, null, null, "default").getId();
+        awaitStatus(id, ScriptStatus.EXECUTING);
+
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger stopped = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            results.add(clients.submit(() -> {
+                start.await();
+                if (tryStop(id))
+                    stopped.incrementAndGet();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results)
+            result.get(30, TimeUnit.SECONDS);
+        clients.shutdown();
+
+        assertThat(stopped.get()).isEqualTo(1);
+        awaitNoActiveScripts(List.of(id));
+        assertThat(scriptRepository.findById(id).map(Script::getStatus)).contains(ScriptStatus.STOPPED);
+    }
+
+    private boolean tryStop(long id) {
+        try {
+            scriptService.stopScript(id);
+            return true;
+        } catch (ScriptExecutionStopException e) {
+            return false;
+        }
+    }
+
+    private boolean tryDelete(long id) {
+        try {
+            scriptService.deleteScript(id);
+            return true;
+        } catch (IllegalDeletionException e) {
+            return false;
+        }
+    }
+
+    private void awaitStatus(long id, ScriptStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (scriptRepository.findById(id).map(Script::getStatus).orElse(null) != status) {
+            assertThat(System.currentTimeMillis()).as("waiting for script %d to be %s", id, status).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private void awaitNoActiveScripts(Iterable<Long> ids) throws InterruptedException {
+        for (Long id : ids) {
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (scriptRepository.findById(id).map(script -> !script.getStatus().isTerminal()).orElse(false)) {
+                assertThat(System.currentTimeMillis()).as("waiting for script %d to finish", id).isLessThan(deadline);
+                Thread.sleep(20);
+            }
+        }
+    }
+}
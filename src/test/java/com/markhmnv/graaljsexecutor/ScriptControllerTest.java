@@ -1,13 +1,20 @@
 package com.markhmnv.graaljsexecutor;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.markhmnv.graaljsexecutor.cache.CachedScript;
 import com.markhmnv.graaljsexecutor.controller.ScriptController;
 import com.markhmnv.graaljsexecutor.exception.IllegalDeletionException;
 import com.markhmnv.graaljsexecutor.exception.ScriptExecutionStopException;
 import com.markhmnv.graaljsexecutor.exception.ScriptNotFoundException;
 import com.markhmnv.graaljsexecutor.model.entity.Script;
+import com.markhmnv.graaljsexecutor.model.projection.ScriptRevision;
 import com.markhmnv.graaljsexecutor.model.response.ScriptFullInfo;
 import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
+import com.markhmnv.graaljsexecutor.model.response.ScriptStats;
 import com.markhmnv.graaljsexecutor.service.ScriptService;
+import com.markhmnv.graaljsexecutor.streaming.ScriptListWriter;
 import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,16 +23,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -33,14 +46,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureWebMvc
 @AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(ScriptController.class)
+@Import(ScriptListWriter.class)
 public class ScriptControllerTest {
     @MockBean
     private ScriptService scriptService;
     @Autowired
     MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
 
     private Script script;
     private ScriptFullInfo scriptFullInfo;
+    private ScriptRevision scriptRevision;
     private List<ScriptGeneralInfo> scriptGeneralInfos;
 
     @BeforeEach
@@ -51,12 +68,12 @@ public class ScriptControllerTest {
         ScriptGeneralInfo scriptGeneralInfo1 = ScriptGeneralInfo.builder().id(script.getId()).status(script.getStatus()).output(script.getOutput()).build();
         ScriptGeneralInfo scriptGeneralInfo2 = ScriptGeneralInfo.builder().id(script2.getId()).status(script2.getStatus()).output(script2.getOutput()).build();
         scriptGeneralInfos = Arrays.asList(scriptGeneralInfo1, scriptGeneralInfo2);
+        scriptRevision = new ScriptRevision(script.getId(), Instant.parse("2023-07-01T10:15:30Z"), 2L);
     }
 
     @Test
     public void testGetAllScripts() throws Exception {
-        given(scriptService.getScripts(null, "id"))
-                .willReturn(scriptGeneralInfos);
+        givenScripts(null);
 
         ResultActions response = mockMvc
                 .perform(MockMvcRequestBuilders.get("/api/v1/scripts")
@@ -71,8 +88,7 @@ public class ScriptControllerTest {
 
     @Test
     void testGetScriptsByStatus() throws Exception {
-        given(scriptService.getScripts(ScriptStatus.COMPLETED, "id"))
-                .willReturn(scriptGeneralInfos);
+        givenScripts(ScriptStatus.COMPLETED);
 
         ResultActions response = mockMvc
                 .perform(MockMvcRequestBuilders.get("/api/v1/scripts")
@@ -86,10 +102,65 @@ public class ScriptControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[*].output").exists());
     }
 
+    @Test
+    void testGetScriptsAsNdjson() throws Exception {
+        givenScripts(null);
+
+        String content = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/scripts")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(scriptGeneralInfos.get(1).getId());
+    }
+
+    @Test
+    void testGetScriptsAsCbor() throws Exception {
+        givenScripts(null);
+
+        byte[] content = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/scripts")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode scripts = new ObjectMapper(new CBORFactory()).readTree(content);
+        assertThat(scripts.size()).isEqualTo(2);
+        assertThat(scripts.get(0).get("output").asText()).isEqualTo(scriptGeneralInfos.get(0).getOutput());
+    }
+
+    @Test
+    void testGetScriptsWithUnsupportedMediaType() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/scripts")
+                        .accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testGetScriptStats() throws Exception {
+        given(scriptService.getScriptStats()).willReturn(ScriptStats.builder()
+                .total(3)
+                .counts(Map.of(ScriptStatus.COMPLETED, 2L, ScriptStatus.QUEUED, 1L))
+                .executionTime(Map.of())
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/scripts/stats")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.counts.COMPLETED").value(2));
+    }
+
     @Test
     public void testGetScript() throws Exception {
-        given(scriptService.getScript(script.getId()))
-                .willReturn(scriptFullInfo);
+        // The script changed between the revision check and the read of the body, the validators describe the body
+        given(scriptService.getScriptRevision(script.getId()))
+                .willReturn(new ScriptRevision(script.getId(), Instant.parse("2023-07-01T10:15:00Z"), 1L));
+        given(scriptService.getScriptResponse(script.getId()))
+                .willReturn(new CachedScript(scriptRevision, objectMapper.writeValueAsBytes(scriptFullInfo)));
 
         ResultActions response = mockMvc
                 .perform(MockMvcRequestBuilders.get("/api/v1/scripts/{id}", script.getId())
@@ -97,15 +168,30 @@ public class ScriptControllerTest {
 
         response.andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"" + scriptRevision.eTag() + "\""))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(script.getId()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(script.getStatus().toString()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.body").value(script.getBody()))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.output").value(script.getOutput()));
     }
 
+    @Test
+    public void testGetScriptNotModified() throws Exception {
+        given(scriptService.getScriptRevision(script.getId())).willReturn(scriptRevision);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/scripts/{id}", script.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + scriptRevision.eTag() + "\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"" + scriptRevision.eTag() + "\""))
+                .andExpect(MockMvcResultMatchers.content().bytes(new byte[0]));
+        verify(scriptService, never()).getScriptResponse(anyLong());
+    }
+
     @Test
     public void testGetScriptNotFound() throws Exception {
-        given(scriptService.getScript(anyLong())).willThrow(new ScriptNotFoundException());
+        given(scriptService.getScriptRevision(anyLong())).willThrow(new ScriptNotFoundException());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/scripts/{id}", anyLong())
                         .accept(MediaType.APPLICATION_JSON))
@@ -115,7 +201,7 @@ public class ScriptControllerTest {
     @Test
     public void testEvaluateScript() throws Exception {
         String scriptRequest = "console.log('Hello world');";
-        given(scriptService.evaluateScript(scriptRequest, null, null)).willReturn(scriptFullInfo);
+        given(scriptService.evaluateScript(scriptRequest, null, null, "default")).willReturn(scriptFullInfo);
 
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/scripts/evaluate")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -133,7 +219,7 @@ public class ScriptControllerTest {
     public void testEvaluateScriptWithScheduling() throws Exception {
         String scriptRequest = "console.log('Hello world');";
         LocalDateTime executeAt = LocalDateTime.now().plusHours(1);
-        given(scriptService.evaluateScript(scriptRequest, executeAt, null))
+        given(scriptService.evaluateScript(scriptRequest, executeAt, null, "default"))
                 .willReturn(scriptFullInfo);
 
         ResultActions response = mockMvc.perform(
@@ -202,4 +288,12 @@ public class ScriptControllerTest {
 
         response.andExpect(status().isBadRequest());
     }
+
+    private void givenScripts(ScriptStatus status) {
+        willAnswer(invocation -> {
+            Consumer<ScriptGeneralInfo> action = invocation.getArgument(2);
+            scriptGeneralInfos.forEach(action);
+            return null;
+        }).given(scriptService).streamScripts(eq(status), eq("id"), any());
+    }
 }
@@ -0,0 +1,72 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
+import com.markhmnv.graaljsexecutor.streaming.ScriptListFormat;
+import com.markhmnv.graaljsexecutor.streaming.ScriptListWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ScriptListWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ScriptListWriter scriptListWriter = new ScriptListWriter(objectMapper);
+    private final ScriptGeneralInfo script = ScriptGeneralInfo.builder().id(1L).status(ScriptStatus.COMPLETED).output("1\n").build();
+
+    @ParameterizedTest
+    @EnumSource(value = ScriptListFormat.class, names = {"JSON", "CBOR", "SMILE"})
+    void testCompleteListingIsClosed(ScriptListFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        scriptListWriter.write(format, out, action -> {
+            action.accept(script);
+            action.accept(script);
+        });
+
+        assertThat(readerOf(format).readTree(out.toByteArray()).size()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ScriptListFormat.class, names = {"JSON", "CBOR", "SMILE"})
+    void testFailedListingIsLeftOpen(ScriptListFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class, () -> scriptListWriter.write(format, out, action -> {
+            action.accept(script);
+            throw new IllegalStateException("Connection lost");
+        }));
+
+        assertThat(out.size()).isPositive();
+        assertThrows(JsonEOFException.class, () -> readerOf(format).readTree(out.toByteArray()));
+    }
+
+    @Test
+    void testFailedJsonListingEndsAfterLastRow() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class, () -> scriptListWriter.write(ScriptListFormat.JSON, out, action -> {
+            action.accept(script);
+            throw new IllegalStateException("Connection lost");
+        }));
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).startsWith("[{").endsWith("}");
+    }
+
+    private ObjectMapper readerOf(ScriptListFormat format) {
+        return switch (format) {
+            case CBOR -> new ObjectMapper(new CBORFactory());
+            case SMILE -> new ObjectMapper(new SmileFactory());
+            default -> objectMapper;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.model.entity.Script;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.repository.ScriptRepository;
+import com.markhmnv.graaljsexecutor.service.ScriptService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a listing read by a slow consumer is cut off at the deadline of its transaction.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "script.listing.timeout-seconds=2"})
+public class ScriptListingTimeoutTest {
+    private static final int SCRIPTS = 5;
+
+    @Autowired
+    private ScriptService scriptService;
+    @Autowired
+    private ScriptRepository scriptRepository;
+
+    private final List<Script> scripts = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp(){
+        for (int i = 0; i < SCRIPTS; i++)
+            scripts.add(scriptRepository.save(Script.builder()
+                    .status(ScriptStatus.COMPLETED)
+                    .body("console.log(1);")
+                    .output("1\n")
+                    .tenant("default")
+                    .build()));
+    }
+
+    @AfterEach
+    public void tearDown(){
+        scriptRepository.deleteAll(scripts);
+    }
+
+    @Test
+    void testSlowConsumerIsCutOffAtDeadline() {
+        AtomicInteger consumed = new AtomicInteger();
+
+        assertThrows(TransactionTimedOutException.class, () -> scriptService.streamScripts(ScriptStatus.COMPLETED, "id", script -> {
+            consumed.incrementAndGet();
+            sleep(600);
+        }));
+
+        assertThat(consumed.get()).isBetween(1, SCRIPTS - 1);
+    }
+
+    @Test
+    void testFastConsumerReadsWholeListing() {
+        AtomicInteger consumed = new AtomicInteger();
+
+        scriptService.streamScripts(ScriptStatus.COMPLETED, "id", script -> consumed.incrementAndGet());
+
+        assertThat(consumed.get()).isGreaterThanOrEqualTo(SCRIPTS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.model.entity.Script;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
+import com.markhmnv.graaljsexecutor.repository.ScriptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+public class ScriptRepositoryTest {
+    @Autowired
+    private ScriptRepository scriptRepository;
+
+    private Script completed;
+    private Script failed;
+    private Script queued;
+    private Script completedLater;
+
+    @BeforeEach
+    public void setUp(){
+        completed = save(ScriptStatus.COMPLETED, "1\n");
+        failed = save(ScriptStatus.FAILED, "ReferenceError: x is not defined");
+        queued = save(ScriptStatus.QUEUED, null);
+        completedLater = save(ScriptStatus.COMPLETED, "2\n");
+    }
+
+    @Test
+    void testStreamAllSortedByIdDescending() {
+        try (Stream<ScriptGeneralInfo> scripts = scriptRepository.streamAllBy(Sort.by("id").descending())) {
+            assertThat(scripts.toList()).extracting(ScriptGeneralInfo::getId)
+                    .containsExactly(completedLater.getId(), queued.getId(), failed.getId(), completed.getId());
+        }
+    }
+
+    @Test
+    void testStreamAllSortedByStatusDescending() {
+        try (Stream<ScriptGeneralInfo> scripts = scriptRepository.streamAllBy(Sort.by("status").descending())) {
+            List<ScriptGeneralInfo> listing = scripts.toList();
+
+            assertThat(listing).extracting(ScriptGeneralInfo::getStatus).containsExactly(
+                    ScriptStatus.QUEUED, ScriptStatus.FAILED, ScriptStatus.COMPLETED, ScriptStatus.COMPLETED);
+            assertThat(listing.get(1).getOutput()).isEqualTo(failed.getOutput());
+        }
+    }
+
+    @Test
+    void testStreamByStatusReturnsOnlyMatchingScripts() {
+        try (Stream<ScriptGeneralInfo> scripts = scriptRepository.streamByStatus(ScriptStatus.COMPLETED, Sort.by("id").descending())) {
+            assertThat(scripts.toList())
+                    .extracting(ScriptGeneralInfo::getId, ScriptGeneralInfo::getOutput, ScriptGeneralInfo::getStatus)
+                    .containsExactly(
+                            tuple(completedLater.getId(), "2\n", ScriptStatus.COMPLETED),
+                            tuple(completed.getId(), "1\n", ScriptStatus.COMPLETED));
+        }
+    }
+
+    @Test
+    void testFindRevisionById() {
+        assertThat(scriptRepository.findRevisionById(failed.getId())).hasValueSatisfying(revision -> {
+            assertThat(revision.getId()).isEqualTo(failed.getId());
+            assertThat(revision.getVersion()).isEqualTo(failed.getVersion());
+            assertThat(revision.getUpdatedAt()).isEqualTo(failed.getUpdatedAt());
+        });
+    }
+
+    private Script save(ScriptStatus status, String output) {
+        return scriptRepository.save(Script.builder()
+                .status(status)
+                .body("console.log(1);")
+                .output(output)
+                .tenant("default")
+                .build());
+    }
+}
@@ -1,28 +1,41 @@
 package com.markhmnv.graaljsexecutor;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.markhmnv.graaljsexecutor.cache.CachedScript;
+import com.markhmnv.graaljsexecutor.cache.ScriptResponseCache;
+import com.markhmnv.graaljsexecutor.config.StatisticsProperties;
 import com.markhmnv.graaljsexecutor.exception.IllegalDeletionException;
 import com.markhmnv.graaljsexecutor.exception.ScriptExecutionStopException;
 import com.markhmnv.graaljsexecutor.exception.ScriptNotFoundException;
 import com.markhmnv.graaljsexecutor.mapper.ScriptMapper;
+import com.markhmnv.graaljsexecutor.metrics.ScriptStatistics;
 import com.markhmnv.graaljsexecutor.model.entity.Script;
 import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.projection.ScriptRevision;
+import com.markhmnv.graaljsexecutor.model.projection.StatusCount;
 import com.markhmnv.graaljsexecutor.model.response.ScriptFullInfo;
 import com.markhmnv.graaljsexecutor.model.response.ScriptGeneralInfo;
 import com.markhmnv.graaljsexecutor.repository.ScriptRepository;
+import com.markhmnv.graaljsexecutor.scheduling.FairShareDispatcher;
 import com.markhmnv.graaljsexecutor.service.ScriptService;
+import com.markhmnv.graaljsexecutor.state.ScriptStateMachine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.TaskScheduler;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ScheduledFuture;
 
@@ -39,13 +52,22 @@ public class ScriptServiceTest {
     private ScriptMapper scriptMapper;
     @Mock
     private TaskScheduler taskScheduler;
+    @Mock
+    private ScriptResponseCache responseCache;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Spy
+    private ScriptStatistics scriptStatistics = new ScriptStatistics(new StatisticsProperties());
+    @Spy
+    private ScriptStateMachine scriptStateMachine = new ScriptStateMachine(scriptStatistics);
+    @Mock
+    private FairShareDispatcher dispatcher;
 
     @InjectMocks
     private ScriptService scriptService;
 
     private Script script;
     private ScriptFullInfo scriptFullInfo;
-    private List<Script> scripts;
     private List<ScriptGeneralInfo> scriptGeneralInfos;
 
     @BeforeEach
@@ -53,43 +75,31 @@ public class ScriptServiceTest {
         script = Script.builder().id(1L).status(ScriptStatus.COMPLETED).body("console.log('Hello world');").output("Hello world\n").build();
         scriptFullInfo = ScriptFullInfo.builder().id(script.getId()).status(script.getStatus()).body(script.getBody()).output(script.getOutput()).build();
         Script script2 = Script.builder().id(2L).status(ScriptStatus.COMPLETED).body("console.log('World');").output("World\n").build();
-        scripts = Arrays.asList(script, script2);
         ScriptGeneralInfo scriptGeneralInfo1 = ScriptGeneralInfo.builder().id(script.getId()).status(script.getStatus()).output(script.getOutput()).build();
         ScriptGeneralInfo scriptGeneralInfo2 = ScriptGeneralInfo.builder().id(script2.getId()).status(script2.getStatus()).output(script2.getOutput()).build();
         scriptGeneralInfos = Arrays.asList(scriptGeneralInfo1, scriptGeneralInfo2);
     }
 
     @Test
-    void testGetAllScripts() {
-        given(scriptRepository.findAll(any(Sort.class))).willReturn(scripts);
-        when(scriptMapper.toScriptGeneralInfoList(scripts)).thenReturn(scriptGeneralInfos);
+    void testStreamAllScripts() {
+        given(scriptRepository.streamAllBy(any(Sort.class))).willReturn(scriptGeneralInfos.stream());
+
+        List<ScriptGeneralInfo> foundScripts = new ArrayList<>();
+        scriptService.streamScripts(null, "id", foundScripts::add);
 
-        List<ScriptGeneralInfo> foundScripts = scriptService.getScripts(null, "id");
-        assertThat(foundScripts).isNotNull();
-        assertThat(foundScripts.size()).isEqualTo(2);
-        assertThat(foundScripts.get(0).getId()).isEqualTo(scriptGeneralInfos.get(0).getId());
-        assertThat(foundScripts.get(0).getStatus()).isEqualTo(scriptGeneralInfos.get(0).getStatus());
-        assertThat(foundScripts.get(0).getOutput()).isEqualTo(scriptGeneralInfos.get(0).getOutput());
-        assertThat(foundScripts.get(1).getId()).isEqualTo(scriptGeneralInfos.get(1).getId());
-        assertThat(foundScripts.get(1).getStatus()).isEqualTo(scriptGeneralInfos.get(1).getStatus());
-        assertThat(foundScripts.get(1).getOutput()).isEqualTo(scriptGeneralInfos.get(1).getOutput());
+        assertThat(foundScripts).containsExactlyElementsOf(scriptGeneralInfos);
+        verify(scriptRepository, times(1)).streamAllBy(Sort.by("id").descending());
     }
 
     @Test
-    void testGetScriptsByStatus() {
-        given(scriptRepository.findByStatus(any(ScriptStatus.class), any(Sort.class))).willReturn(scripts);
-        when(scriptMapper.toScriptGeneralInfoList(scripts)).thenReturn(scriptGeneralInfos);
+    void testStreamScriptsByStatus() {
+        given(scriptRepository.streamByStatus(any(ScriptStatus.class), any(Sort.class))).willReturn(scriptGeneralInfos.stream());
 
-        List<ScriptGeneralInfo> foundScripts = scriptService.getScripts(ScriptStatus.COMPLETED, "id");
+        List<ScriptGeneralInfo> foundScripts = new ArrayList<>();
+        scriptService.streamScripts(ScriptStatus.COMPLETED, "id", foundScripts::add);
 
-        assertThat(foundScripts).isNotNull();
-        assertThat(foundScripts.size()).isEqualTo(2);
-        assertThat(foundScripts.get(0).getId()).isEqualTo(scriptGeneralInfos.get(0).getId());
-        assertThat(foundScripts.get(0).getStatus()).isEqualTo(scriptGeneralInfos.get(0).getStatus());
-        assertThat(foundScripts.get(0).getOutput()).isEqualTo(scriptGeneralInfos.get(0).getOutput());
-        assertThat(foundScripts.get(1).getId()).isEqualTo(scriptGeneralInfos.get(1).getId());
-        assertThat(foundScripts.get(1).getStatus()).isEqualTo(scriptGeneralInfos.get(1).getStatus());
-        assertThat(foundScripts.get(1).getOutput()).isEqualTo(scriptGeneralInfos.get(1).getOutput());
+        assertThat(foundScripts).containsExactlyElementsOf(scriptGeneralInfos);
+        verify(scriptRepository, times(1)).streamByStatus(ScriptStatus.COMPLETED, Sort.by("id").descending());
     }
 
     @Test
@@ -105,6 +115,81 @@ public class ScriptServiceTest {
         assertThat(foundScript.getOutput()).isEqualTo(scriptFullInfo.getOutput());
     }
 
+    @Test
+    void testGetScriptRevisionDoesNotLoadScript() {
+        ScriptRevision revision = new ScriptRevision(script.getId(), Instant.now(), 2L);
+        given(scriptRepository.findRevisionById(script.getId())).willReturn(Optional.of(revision));
+
+        assertThat(scriptService.getScriptRevision(script.getId())).isSameAs(revision);
+        verify(scriptRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGetScriptRevisionFromCache() {
+        ScriptRevision revision = new ScriptRevision(script.getId(), Instant.now(), 2L);
+        given(responseCache.get(script.getId())).willReturn(new CachedScript(revision, new byte[0]));
+
+        assertThat(scriptService.getScriptRevision(script.getId())).isSameAs(revision);
+        verify(scriptRepository, never()).findRevisionById(anyLong());
+    }
+
+    @Test
+    void testGetScriptRevisionNotFound() {
+        given(scriptRepository.findRevisionById(anyLong())).willReturn(Optional.empty());
+
+        assertThrows(ScriptNotFoundException.class, () -> scriptService.getScriptRevision(script.getId()));
+    }
+
+    @Test
+    void testGetScriptResponseFromCache() {
+        ScriptRevision revision = new ScriptRevision(script.getId(), Instant.now(), 2L);
+        CachedScript cached = new CachedScript(revision, new byte[0]);
+        given(responseCache.get(script.getId())).willReturn(cached);
+
+        assertThat(scriptService.getScriptResponse(script.getId())).isSameAs(cached);
+        verify(scriptRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testGetScriptResponseCachesTerminalScript() throws Exception {
+        script.setVersion(2L);
+        given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
+        given(scriptRepository.findRevisionById(script.getId()))
+                .willReturn(Optional.of(new ScriptRevision(script.getId(), Instant.now(), 2L)));
+        when(scriptMapper.toScriptFullInfo(script)).thenReturn(scriptFullInfo);
+
+        CachedScript response = scriptService.getScriptResponse(script.getId());
+
+        assertThat(objectMapper.readValue(response.getJson(), Map.class).get("body")).isEqualTo(script.getBody());
+        assertThat(response.getRevision().getVersion()).isEqualTo(2L);
+        verify(responseCache, times(1)).put(eq(script.getId()), any(CachedScript.class));
+        verify(responseCache, never()).evict(anyLong());
+    }
+
+    @Test
+    void testGetScriptResponseEvictsScriptDeletedMeanwhile() {
+        script.setVersion(2L);
+        given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
+        given(scriptRepository.findRevisionById(script.getId())).willReturn(Optional.empty());
+        when(scriptMapper.toScriptFullInfo(script)).thenReturn(scriptFullInfo);
+
+        scriptService.getScriptResponse(script.getId());
+
+        verify(responseCache, times(1)).put(eq(script.getId()), any(CachedScript.class));
+        verify(responseCache, times(1)).evict(script.getId());
+    }
+
+    @Test
+    void testGetScriptResponseDoesNotCacheRunningScript() {
+        script.setStatus(ScriptStatus.EXECUTING);
+        given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
+        when(scriptMapper.toScriptFullInfo(script)).thenReturn(scriptFullInfo);
+
+        scriptService.getScriptResponse(script.getId());
+
+        verify(responseCache, never()).put(anyLong(), any(CachedScript.class));
+    }
+
     @Test
     void testGetScriptNotFound() {
         given(scriptRepository.findById(anyLong())).willReturn(Optional.empty());
@@ -120,7 +205,7 @@ public class ScriptServiceTest {
         when(scriptMapper.toScriptFullInfo(script)).thenReturn(scriptFullInfo);
         when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> mock(ScheduledFuture.class));
 
-        ScriptFullInfo evaluatedScript = scriptService.evaluateScript(scriptRequest, null, null);
+        ScriptFullInfo evaluatedScript = scriptService.evaluateScript(scriptRequest, null, null, "default");
 
         assertThat(evaluatedScript).isNotNull();
         assertThat(evaluatedScript.getId()).isEqualTo(scriptFullInfo.getId());
@@ -140,7 +225,7 @@ public class ScriptServiceTest {
 
         LocalDateTime executeAt = LocalDateTime.now().plusHours(1);
 
-        ScriptFullInfo evaluatedScript = scriptService.evaluateScript(scriptRequest, executeAt, null);
+        ScriptFullInfo evaluatedScript = scriptService.evaluateScript(scriptRequest, executeAt, null, "default");
 
         assertThat(evaluatedScript).isNotNull();
         assertThat(evaluatedScript.getId()).isEqualTo(scriptFullInfo.getId());
@@ -150,30 +235,130 @@ public class ScriptServiceTest {
         verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
     }
 
+    @Test
+    public void testEvaluateScriptIsDispatchedForTenant(){
+        script.setStatus(ScriptStatus.QUEUED);
+        given(scriptRepository.save(any(Script.class))).willReturn(script);
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return mock(ScheduledFuture.class);
+        });
+
+        scriptService.evaluateScript(script.getBody(), null, null, "acme");
+
+        verify(dispatcher, times(1)).submit(eq("acme"), any(Runnable.class));
+        assertThat(scriptStateMachine.current(script.getId())).isEqualTo(ScriptStatus.QUEUED);
+    }
+
     @Test
     public void testDeleteScript(){
         given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
         scriptService.deleteScript(script.getId());
         verify(scriptRepository, times(1)).delete(script);
+        verify(responseCache, times(1)).evict(script.getId());
     }
 
     @Test
     public void testDeleteScriptWithExecutingStatus(){
         script.setStatus(ScriptStatus.EXECUTING);
-        given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
+        scriptStateMachine.register(script.getId(), ScriptStatus.EXECUTING);
         assertThrows(IllegalDeletionException.class, () -> scriptService.deleteScript(script.getId()));
         verify(scriptRepository, times(0)).delete(script);
     }
 
+    @Test
+    public void testDeleteQueuedScript(){
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        script.setStatus(ScriptStatus.QUEUED);
+        given(scriptRepository.save(any(Script.class))).willReturn(script);
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> future);
+        scriptService.evaluateScript(script.getBody(), LocalDateTime.now().plusHours(1), null, "default");
+        given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
+
+        scriptService.deleteScript(script.getId());
+
+        verify(future, times(1)).cancel(false);
+        verify(scriptRepository, times(1)).delete(script);
+        assertThat(scriptStateMachine.current(script.getId())).isNull();
+        assertThat(scriptService.getScriptStats().getTotal()).isZero();
+    }
+
+    @Test
+    void testOrphanedScriptsAreStoppedAndCountersReconciledOnStartup() {
+        script.setStatus(ScriptStatus.EXECUTING);
+        given(scriptRepository.findByStatusIn(List.of(ScriptStatus.QUEUED, ScriptStatus.EXECUTING))).willReturn(List.of(script));
+        given(scriptRepository.countByStatus()).willReturn(List.of(
+                new StatusCount(ScriptStatus.STOPPED, 1L), new StatusCount(ScriptStatus.COMPLETED, 2L)));
+
+        scriptService.afterSingletonsInstantiated();
+
+        assertThat(script.getStatus()).isEqualTo(ScriptStatus.STOPPED);
+        verify(scriptRepository, times(1)).saveAll(List.of(script));
+        assertThat(scriptService.getScriptStats().getTotal()).isEqualTo(3);
+        assertThat(scriptService.getScriptStats().getCounts()).containsEntry(ScriptStatus.STOPPED, 1L);
+    }
+
     @Test
     void testStopRunningScript() {
         script.setStatus(ScriptStatus.EXECUTING);
+        scriptStateMachine.register(script.getId(), ScriptStatus.EXECUTING);
+        ScriptRevision revision = new ScriptRevision(script.getId(), Instant.now(), 1L);
+        given(scriptRepository.findRevisionById(script.getId())).willReturn(Optional.of(revision));
+        given(scriptRepository.updateStatus(eq(script.getId()), eq(1L), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class)))
+                .willReturn(1);
+
+        scriptService.stopScript(script.getId());
+
+        assertThat(scriptStateMachine.current(script.getId())).isNull();
+        verify(scriptRepository, times(1)).updateStatus(eq(script.getId()), eq(1L), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class));
+    }
+
+    @Test
+    void testStopRetriesOnVersionConflict() {
+        scriptStateMachine.register(script.getId(), ScriptStatus.EXECUTING);
+        given(scriptRepository.findRevisionById(script.getId())).willReturn(
+                Optional.of(new ScriptRevision(script.getId(), Instant.now(), 1L)),
+                Optional.of(new ScriptRevision(script.getId(), Instant.now(), 2L)));
+        given(scriptRepository.updateStatus(eq(script.getId()), eq(1L), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class)))
+                .willReturn(0);
+        given(scriptRepository.updateStatus(eq(script.getId()), eq(2L), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class)))
+                .willReturn(1);
+
+        scriptService.stopScript(script.getId());
+
+        verify(scriptRepository, times(2)).updateStatus(eq(script.getId()), anyLong(), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class));
+    }
+
+    @Test
+    void testStopIsPersistedInBackgroundWhenVersionConflictsPersist() {
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        scriptStateMachine.register(script.getId(), ScriptStatus.EXECUTING);
+        given(scriptRepository.findRevisionById(script.getId())).willReturn(
+                Optional.of(new ScriptRevision(script.getId(), Instant.now(), 1L)));
+        given(scriptRepository.updateStatus(eq(script.getId()), anyLong(), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class)))
+                .willReturn(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1);
+
+        scriptService.stopScript(script.getId());
+
+        assertThat(scriptStateMachine.current(script.getId())).isEqualTo(ScriptStatus.STOPPED);
+        verify(responseCache, never()).evict(script.getId());
+        verify(taskScheduler, times(1)).schedule(retry.capture(), any(Instant.class));
+
+        retry.getValue().run();
+
+        assertThat(scriptStateMachine.current(script.getId())).isNull();
+        verify(scriptRepository, times(11)).updateStatus(eq(script.getId()), anyLong(), eq(ScriptStatus.STOPPED), isNull(), isNull(), any(Instant.class));
+        verify(responseCache, times(1)).evict(script.getId());
+    }
+
+    @Test
+    void testStopScriptTwice() {
+        scriptStateMachine.register(script.getId(), ScriptStatus.QUEUED);
         given(scriptRepository.findById(script.getId())).willReturn(Optional.of(script));
 
         scriptService.stopScript(script.getId());
 
-        assertThat(script.getStatus()).isEqualTo(ScriptStatus.STOPPED);
-        verify(scriptRepository, times(1)).save(any(Script.class));
+        assertThrows(ScriptExecutionStopException.class, () -> scriptService.stopScript(script.getId()));
     }
 
     @Test
@@ -0,0 +1,102 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.config.StatisticsProperties;
+import com.markhmnv.graaljsexecutor.metrics.LatencyHistogram;
+import com.markhmnv.graaljsexecutor.metrics.RollingLatencyHistogram;
+import com.markhmnv.graaljsexecutor.metrics.ScriptStatistics;
+import com.markhmnv.graaljsexecutor.model.enums.ScriptStatus;
+import com.markhmnv.graaljsexecutor.model.projection.StatusCount;
+import com.markhmnv.graaljsexecutor.model.response.ScriptStats;
+import com.markhmnv.graaljsexecutor.state.ScriptStateMachine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScriptStatisticsTest {
+    private ScriptStatistics scriptStatistics;
+    private ScriptStateMachine scriptStateMachine;
+
+    @BeforeEach
+    public void setUp(){
+        scriptStatistics = new ScriptStatistics(new StatisticsProperties());
+        scriptStateMachine = new ScriptStateMachine(scriptStatistics);
+    }
+
+    @Test
+    void testCountsFollowTransitions() {
+        scriptStateMachine.register(1L, ScriptStatus.QUEUED);
+        scriptStateMachine.register(2L, ScriptStatus.QUEUED);
+        scriptStateMachine.transition(1L, ScriptStatus.QUEUED, ScriptStatus.EXECUTING);
+        scriptStateMachine.transition(1L, ScriptStatus.EXECUTING, ScriptStatus.COMPLETED);
+        scriptStateMachine.transitionToFromAny(2L, ScriptStatus.STOPPED);
+        scriptStateMachine.transitionToFromAny(2L, ScriptStatus.STOPPED);
+
+        ScriptStats stats = scriptStatistics.getStats();
+
+        assertThat(stats.getTotal()).isEqualTo(2);
+        assertThat(stats.getCounts()).containsEntry(ScriptStatus.COMPLETED, 1L)
+                .containsEntry(ScriptStatus.STOPPED, 1L)
+                .containsEntry(ScriptStatus.QUEUED, 0L)
+                .containsEntry(ScriptStatus.EXECUTING, 0L);
+    }
+
+    @Test
+    void testFailedTransitionIsNotCounted() {
+        scriptStateMachine.register(1L, ScriptStatus.QUEUED);
+        scriptStateMachine.transition(1L, ScriptStatus.EXECUTING, ScriptStatus.COMPLETED);
+
+        assertThat(scriptStatistics.getStats().getCounts()).containsEntry(ScriptStatus.QUEUED, 1L)
+                .containsEntry(ScriptStatus.COMPLETED, 0L);
+    }
+
+    @Test
+    void testReconcileReplacesCounts() {
+        scriptStateMachine.register(1L, ScriptStatus.QUEUED);
+
+        scriptStatistics.reconcile(List.of(new StatusCount(ScriptStatus.COMPLETED, 5L),
+                new StatusCount(ScriptStatus.FAILED, 2L)));
+
+        ScriptStats stats = scriptStatistics.getStats();
+        assertThat(stats.getTotal()).isEqualTo(7);
+        assertThat(stats.getCounts()).containsEntry(ScriptStatus.QUEUED, 0L)
+                .containsEntry(ScriptStatus.COMPLETED, 5L);
+    }
+
+    @Test
+    void testExecutionTimePercentilesPerWindow() {
+        for (long executionTime = 1; executionTime <= 100; executionTime++)
+            scriptStatistics.recordExecutionTime(executionTime);
+
+        ScriptStats stats = scriptStatistics.getStats();
+
+        assertThat(stats.getExecutionTime()).containsOnlyKeys("1m", "5m", "15m");
+        assertThat(stats.getExecutionTime().get("1m").getCount()).isEqualTo(100);
+        assertThat(stats.getExecutionTime().get("1m").getP50()).isBetween(47.0, 53.0);
+        assertThat(stats.getExecutionTime().get("15m").getMax()).isEqualTo(100);
+    }
+
+    @Test
+    void testRollingHistogramDropsExpiredSlices() {
+        AtomicLong clock = new AtomicLong();
+        RollingLatencyHistogram histogram = new RollingLatencyHistogram(Duration.ofSeconds(1), Duration.ofSeconds(10), clock::get);
+
+        histogram.record(10);
+        clock.set(Duration.ofSeconds(5).toNanos());
+        histogram.record(20);
+
+        LatencyHistogram lastSecond = histogram.snapshot(Duration.ofSeconds(1));
+        assertThat(lastSecond.getTotalCount()).isEqualTo(1);
+        assertThat(lastSecond.getMaxValue()).isEqualTo(20);
+        assertThat(histogram.snapshot(Duration.ofSeconds(10)).getTotalCount()).isEqualTo(2);
+
+        clock.set(Duration.ofSeconds(12).toNanos());
+        assertThat(histogram.snapshot(Duration.ofSeconds(10)).getTotalCount()).isEqualTo(1);
+        clock.set(Duration.ofSeconds(30).toNanos());
+        assertThat(histogram.snapshot(Duration.ofSeconds(10)).getTotalCount()).isZero();
+    }
+}
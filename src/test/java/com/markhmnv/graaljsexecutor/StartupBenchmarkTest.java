@@ -0,0 +1,92 @@
+package com.markhmnv.graaljsexecutor;
+
+import com.markhmnv.graaljsexecutor.config.ExitOnReady;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the startup time of the application in fresh JVMs, with the default profile, the fast-startup profile
+ * and, if {@code ./mvnw package -Pcds} was run before, the fast-startup profile with the class data sharing archive.
+ * Startup time is the JVM uptime when the application reports the ACCEPTING_TRAFFIC readiness state, after all
+ * ApplicationReadyEvent listeners ran, as printed by ExitOnReady.
+ * Run it with {@code ./mvnw test -Pstartup-benchmark}, the number of runs per variant is set by {@code -Dstartup.runs}.
+ * The report is written to {@code target/startup-benchmark/report.txt}.
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTest {
+    private static final Path CDS_DIR = Path.of("target", "cds");
+    private static final String MAIN_CLASS = GraalJsExecutorApplication.class.getName();
+
+    @Test
+    void testStartupTime() throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        results.put("default", measure(runs, null, List.of(java, "-cp", classpath, MAIN_CLASS), "exit-on-ready"));
+        results.put("fast-startup", measure(runs, null, List.of(java, "-cp", classpath, MAIN_CLASS), "fast-startup,exit-on-ready"));
+        if (Files.exists(CDS_DIR.resolve("app.jsa")))
+            results.put("fast-startup+cds", measure(runs, CDS_DIR.toFile(),
+                    List.of(java, "-XX:SharedArchiveFile=app.jsa", "@app.args"), "fast-startup,exit-on-ready"));
+
+        StringBuilder report = new StringBuilder();
+        report.append("# GraalJSExecutor startup benchmark\n");
+        report.append("runs=").append(runs).append('\n');
+        report.append("java=").append(System.getProperty("java.version")).append('\n');
+        report.append('\n');
+        report.append(String.format(Locale.ROOT, "%-18s %10s %10s %10s%n", "variant", "median_ms", "min_ms", "max_ms"));
+        results.forEach((variant, times) -> report.append(String.format(Locale.ROOT, "%-18s %10d %10d %10d%n",
+                variant, times.get(times.size() / 2), times.get(0), times.get(times.size() - 1))));
+        System.out.println(report);
+
+        Path reportFile = Path.of("target", "startup-benchmark", "report.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report, StandardCharsets.UTF_8);
+        results.values().forEach(times -> assertThat(times).hasSize(runs));
+    }
+
+    /**
+     * @return The sorted startup times of the runs in milliseconds.
+     */
+    private static List<Long> measure(int runs, File directory, List<String> command, String profiles)
+            throws IOException, InterruptedException {
+        List<Long> times = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            List<String> arguments = new ArrayList<>(command);
+            arguments.add("--spring.profiles.active=" + profiles);
+            arguments.add("--server.port=0");
+            arguments.add("--spring.jpa.show-sql=false");
+            Process process = new ProcessBuilder(arguments)
+                    .directory(directory)
+                    .redirectErrorStream(true)
+                    .start();
+            Long startupTime = null;
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    if (line.startsWith(ExitOnReady.STARTUP_TIME_PREFIX))
+                        startupTime = Long.parseLong(line.substring(ExitOnReady.STARTUP_TIME_PREFIX.length()).trim());
+                }
+            }
+            if (!process.waitFor(2, TimeUnit.MINUTES))
+                process.destroyForcibly();
+            assertThat(startupTime).as("startup time of run %d with %s", run, profiles).isNotNull();
+            times.add(startupTime);
+        }
+        Collections.sort(times);
+        return times;
+    }
+}